@@ -0,0 +1,48 @@
+package com.mechanicOnDemand.config;
+
+import com.mechanicOnDemand.model.IdSequences;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves each id sequence past the highest id already in its table. Rows created while the entities
+ * used AUTO_INCREMENT keep their ids, and the pooled generators start above them. Safe to run on
+ * every start and from several nodes at once, as a sequence is only ever moved forward.
+ */
+@Component
+public class IdSequenceInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // Sequence name and the table whose ids it generates
+    private static final List<String> TABLES = List.of("users", "mechanics", "bookings", "notifications", "reviews");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Forces the schema update to run first
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + IdSequences.TABLE + " (" + IdSequences.NAME_COLUMN
+                + " VARCHAR(255) NOT NULL PRIMARY KEY, " + IdSequences.VALUE_COLUMN + " BIGINT)");
+        for (String table : TABLES) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            // One spare block on top, so the first pool handed out cannot reach an existing id
+            long floor = (maxId == null ? 0 : maxId) + IdSequences.ALLOCATION_SIZE + 1;
+            jdbcTemplate.update("INSERT INTO " + IdSequences.TABLE + " (" + IdSequences.NAME_COLUMN + ", "
+                    + IdSequences.VALUE_COLUMN + ") VALUES (?, ?) ON DUPLICATE KEY UPDATE " + IdSequences.VALUE_COLUMN
+                    + " = GREATEST(COALESCE(" + IdSequences.VALUE_COLUMN + ", 0), VALUES(" + IdSequences.VALUE_COLUMN + "))",
+                    table, floor);
+            logger.debug("Id sequence {} starts above {}", table, maxId);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.mechanicOnDemand.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process Hibernate second-level cache backed by Caffeine through JCache. Every region is created up
+ * front with the size and TTL from {@code app.l2-cache.regions}, so each deployment profile can size them.
+ * Native modifying queries must name the tables they write through {@code HibernateHints.HINT_NATIVE_SPACES};
+ * without it Hibernate cannot tell what changed and clears every region on each call.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.l2-cache.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+    public static final String USERS_REGION = "users";
+    public static final String MECHANICS_REGION = "mechanics";
+    public static final String MECHANIC_QUERIES_REGION = "mechanic-queries";
+
+    // Hibernate's record of when each table last changed; evicting from it would let stale query results through
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    public record Region(long maxSize, long ttlMs) {}
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager();
+        Map<String, Region> regions = Binder.get(environment)
+                .bind("app.l2-cache.regions", Bindable.mapOf(String.class, Region.class))
+                .orElse(Map.of());
+        regions.forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.maxSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(region.ttlMs())));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(name, configuration);
+        });
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.use_query_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+            // Hit and miss counts per region, reported by the l2cache actuator endpoint
+            properties.put("hibernate.generate_statistics", true);
+        };
+    }
+}
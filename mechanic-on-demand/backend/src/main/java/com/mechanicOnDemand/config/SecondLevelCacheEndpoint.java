@@ -0,0 +1,54 @@
+package com.mechanicOnDemand.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Hit ratios of the Hibernate second-level and query caches at /api/actuator/l2cache
+@Component
+@Endpoint(id = "l2cache")
+public class SecondLevelCacheEndpoint {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("enabled", statistics.isStatisticsEnabled());
+        report.put("queryCache", counts(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(), null));
+
+        Map<String, Object> regions = new TreeMap<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.put(name, counts(region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                        region.getElementCountInMemory()));
+            }
+        }
+        report.put("regions", regions);
+        return report;
+    }
+
+    private static Map<String, Object> counts(long hits, long misses, long puts, Long size) {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("hits", hits);
+        counts.put("misses", misses);
+        counts.put("puts", puts);
+        counts.put("hitRatio", hits + misses == 0 ? null : (double) hits / (hits + misses));
+        if (size != null && size >= 0) {
+            counts.put("size", size);
+        }
+        return counts;
+    }
+}
@@ -4,6 +4,7 @@ import com.mechanicOnDemand.security.AuthEntryPointJwt;
 import com.mechanicOnDemand.security.AuthTokenFilter;
 import com.mechanicOnDemand.service.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -66,6 +67,7 @@ public class WebSecurityConfig {
                 auth.requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers("/api/public/**").permitAll()
                     .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                    .requestMatchers(EndpointRequest.to("bookinglatency", "l2cache")).hasRole("ADMIN")
                     .requestMatchers("/api/mechanic/**").hasRole("MECHANIC")
                     .requestMatchers("/api/customer/**").hasRole("CUSTOMER")
                     .anyRequest().authenticated()
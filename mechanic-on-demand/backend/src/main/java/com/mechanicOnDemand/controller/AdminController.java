@@ -1,18 +1,42 @@
 package com.mechanicOnDemand.controller;
 
+import com.mechanicOnDemand.dto.BookingListItem;
+import com.mechanicOnDemand.dto.BroadcastRequest;
+import com.mechanicOnDemand.dto.BulkBookingStatusRequest;
+import com.mechanicOnDemand.dto.BulkBookingStatusResult;
+import com.mechanicOnDemand.dto.MechanicListItem;
 import com.mechanicOnDemand.dto.MessageResponse;
+import com.mechanicOnDemand.dto.UserListItem;
 import com.mechanicOnDemand.model.*;
 import com.mechanicOnDemand.repository.UserRepository;
+import com.mechanicOnDemand.security.VerifiedTokenCache;
+import com.mechanicOnDemand.service.BookingLatencyAnalytics;
 import com.mechanicOnDemand.service.BookingService;
+import com.mechanicOnDemand.service.DashboardCounterRegistry;
+import com.mechanicOnDemand.service.ExportService;
 import com.mechanicOnDemand.service.MechanicService;
+import com.mechanicOnDemand.service.NotificationBroadcastService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -28,37 +52,72 @@ public class AdminController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private DashboardCounterRegistry dashboardCounters;
+
+    @Autowired
+    private NotificationBroadcastService notificationBroadcastService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private BookingLatencyAnalytics latencyAnalytics;
+
+    private static final Set<String> USER_SORTS = Set.of("id", "username", "fullName", "email", "city", "role", "createdAt");
+    private static final Set<String> MECHANIC_SORTS = Set.of("id", "rating", "hourlyRate", "yearsOfExperience", "createdAt");
+    private static final Set<String> BOOKING_SORTS = Set.of("id", "status", "createdAt");
+
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Role role,
+                                         @RequestParam(required = false) Boolean active,
+                                         @RequestParam(required = false) String city,
+                                         @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return listUsers(role, active, city, pageable);
     }
 
     @GetMapping("/users/customers")
-    public ResponseEntity<List<User>> getAllCustomers() {
-        List<User> customers = userRepository.findByRole(Role.CUSTOMER);
-        return ResponseEntity.ok(customers);
+    public ResponseEntity<?> getAllCustomers(@RequestParam(required = false) Boolean active,
+                                             @RequestParam(required = false) String city,
+                                             @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return listUsers(Role.CUSTOMER, active, city, pageable);
     }
 
     @GetMapping("/users/mechanics")
-    public ResponseEntity<List<User>> getAllMechanicUsers() {
-        List<User> mechanics = userRepository.findByRole(Role.MECHANIC);
-        return ResponseEntity.ok(mechanics);
+    public ResponseEntity<?> getAllMechanicUsers(@RequestParam(required = false) Boolean active,
+                                                 @RequestParam(required = false) String city,
+                                                 @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return listUsers(Role.MECHANIC, active, city, pageable);
+    }
+
+    private ResponseEntity<?> listUsers(Role role, Boolean active, String city, Pageable pageable) {
+        try {
+            Slice<UserListItem> users = userRepository.findListItems(role, active, city, checkSort(pageable, USER_SORTS));
+            return ResponseEntity.ok(users);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
     }
 
     @GetMapping("/mechanics")
-    public ResponseEntity<List<Mechanic>> getAllMechanics() {
-        List<Mechanic> mechanics = mechanicService.getAllMechanics();
-        return ResponseEntity.ok(mechanics);
+    public ResponseEntity<?> getAllMechanics(@RequestParam(required = false) Boolean verified,
+                                             @RequestParam(required = false) Boolean available,
+                                             @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        try {
+            Slice<MechanicListItem> mechanics = mechanicService.getMechanicListItems(verified, available,
+                    checkSort(pageable, MECHANIC_SORTS));
+            return ResponseEntity.ok(mechanics);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
     }
 
     @GetMapping("/mechanics/unverified")
-    public ResponseEntity<List<Mechanic>> getUnverifiedMechanics() {
-        List<Mechanic> mechanics = mechanicService.getAllMechanics()
-                .stream()
-                .filter(m -> !m.getIsVerified())
-                .toList();
-        return ResponseEntity.ok(mechanics);
+    public ResponseEntity<?> getUnverifiedMechanics(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return getAllMechanics(false, null, pageable);
     }
 
     @PutMapping("/mechanics/{id}/verify")
@@ -74,7 +133,16 @@ public class AdminController {
     @DeleteMapping("/users/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         try {
-            userRepository.deleteById(id);
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            Optional<Mechanic> mechanic = mechanicService.getMechanicByUserId(id);
+            userRepository.delete(user);
+            tokenCache.userDeleted(id);
+            mechanic.ifPresent(profile -> {
+                mechanicService.removeFromIndexes(profile.getId(), id);
+                dashboardCounters.mechanicChanged(profile.getIsVerified(), profile.getIsAvailable(), null, null);
+            });
+            dashboardCounters.userDeleted(user.getRole(), Boolean.TRUE.equals(user.getIsActive()));
             return ResponseEntity.ok(new MessageResponse("User deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
@@ -82,40 +150,114 @@ public class AdminController {
     }
 
     @GetMapping("/bookings")
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        List<Booking> bookings = bookingService.getAllBookings();
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<?> getAllBookings(@RequestParam(required = false) BookingStatus status,
+                                            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC)
+                                            Pageable pageable) {
+        try {
+            Slice<BookingListItem> bookings = bookingService.getBookingListItems(status, checkSort(pageable, BOOKING_SORTS));
+            return ResponseEntity.ok(bookings);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
     }
 
     @GetMapping("/bookings/status/{status}")
-    public ResponseEntity<List<Booking>> getBookingsByStatus(@PathVariable BookingStatus status) {
-        List<Booking> bookings = bookingService.getBookingsByStatus(status);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<?> getBookingsByStatus(@PathVariable BookingStatus status,
+                                                 @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC)
+                                                 Pageable pageable) {
+        return getAllBookings(status, pageable);
+    }
+
+    // Only grid columns backed by the queried entity can be sorted on
+    private static Pageable checkSort(Pageable pageable, Set<String> allowed) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!allowed.contains(order.getProperty())) {
+                throw new RuntimeException("Cannot sort by " + order.getProperty());
+            }
+        }
+        return pageable;
+    }
+
+    @GetMapping("/export/bookings")
+    public ResponseEntity<?> exportBookings(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                            @RequestParam(required = false) BookingStatus status,
+                                            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportService.Format exportFormat = parseFormat(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Format must be ndjson or csv"));
+        }
+        return export("bookings", exportFormat, exportService.exportBookings(from, to, status, exportFormat));
+    }
+
+    @GetMapping("/export/users")
+    public ResponseEntity<?> exportUsers(@RequestParam(required = false) Role role,
+                                         @RequestParam(defaultValue = "ndjson") String format) {
+        ExportService.Format exportFormat = parseFormat(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Format must be ndjson or csv"));
+        }
+        return export("users", exportFormat, exportService.exportUsers(role, exportFormat));
+    }
+
+    private static ExportService.Format parseFormat(String format) {
+        for (ExportService.Format value : ExportService.Format.values()) {
+            if (value.name().equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static ResponseEntity<StreamingResponseBody> export(String name, ExportService.Format format,
+                                                                StreamingResponseBody body) {
+        boolean csv = format == ExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+
+    @PutMapping("/bookings/bulk")
+    public ResponseEntity<?> bulkUpdateBookingStatus(@Valid @RequestBody BulkBookingStatusRequest request) {
+        try {
+            List<BulkBookingStatusResult> results = bookingService.bulkUpdateBookingStatus(null, request.getItems());
+            return ResponseEntity.ok(results);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Error: Some bookings were changed by someone else, please reload and try again"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/notifications/broadcast")
+    public ResponseEntity<?> broadcastNotification(@Valid @RequestBody BroadcastRequest request) {
+        NotificationBroadcastService.Broadcast broadcast = notificationBroadcastService.start(request);
+        return ResponseEntity.accepted().body(broadcast);
+    }
+
+    @GetMapping("/notifications/broadcast/{id}")
+    public ResponseEntity<NotificationBroadcastService.Broadcast> getBroadcast(@PathVariable Long id) {
+        return notificationBroadcastService.getBroadcast(id)
+                .map(broadcast -> ResponseEntity.ok().body(broadcast))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/dashboard/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        // User statistics
-        stats.put("totalUsers", userRepository.count());
-        stats.put("totalCustomers", userRepository.findByRole(Role.CUSTOMER).size());
-        stats.put("totalMechanics", userRepository.findByRole(Role.MECHANIC).size());
-        stats.put("activeUsers", userRepository.findByIsActive(true).size());
-        
-        // Mechanic statistics
-        List<Mechanic> allMechanics = mechanicService.getAllMechanics();
-        stats.put("verifiedMechanics", allMechanics.stream().filter(Mechanic::getIsVerified).count());
-        stats.put("availableMechanics", allMechanics.stream().filter(Mechanic::getIsAvailable).count());
-        
-        // Booking statistics
-        stats.put("totalBookings", bookingService.getAllBookings().size());
-        stats.put("pendingBookings", bookingService.getBookingCountByStatus(BookingStatus.PENDING));
-        stats.put("acceptedBookings", bookingService.getBookingCountByStatus(BookingStatus.ACCEPTED));
-        stats.put("completedBookings", bookingService.getBookingCountByStatus(BookingStatus.COMPLETED));
-        stats.put("cancelledBookings", bookingService.getBookingCountByStatus(BookingStatus.CANCELLED));
-        
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(dashboardCounters.snapshot());
+    }
+
+    @GetMapping("/analytics/latency")
+    public ResponseEntity<?> getBookingLatency(@RequestParam(defaultValue = "ACCEPT") BookingLatencyAnalytics.Metric metric,
+                                               @RequestParam(defaultValue = "OVERALL") BookingLatencyAnalytics.Dimension dimension,
+                                               @RequestParam(required = false) String key,
+                                               @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > 500) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Limit must be between 1 and 500"));
+        }
+        return ResponseEntity.ok(latencyAnalytics.report(metric, dimension, key, limit));
     }
 
     @PutMapping("/users/{id}/activate")
@@ -123,8 +265,12 @@ public class AdminController {
         try {
             User user = userRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("User not found"));
+            boolean wasActive = Boolean.TRUE.equals(user.getIsActive());
             user.setIsActive(true);
             userRepository.save(user);
+            dashboardCounters.userActivationChanged(wasActive, true);
+            tokenCache.restoreUser(id);
+            mechanicService.userActivationChanged(id);
             return ResponseEntity.ok(new MessageResponse("User activated successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
@@ -136,8 +282,12 @@ public class AdminController {
         try {
             User user = userRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("User not found"));
+            boolean wasActive = Boolean.TRUE.equals(user.getIsActive());
             user.setIsActive(false);
             userRepository.save(user);
+            dashboardCounters.userActivationChanged(wasActive, false);
+            tokenCache.revokeUser(id);
+            mechanicService.userActivationChanged(id);
             return ResponseEntity.ok(new MessageResponse("User deactivated successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
@@ -1,20 +1,36 @@
 package com.mechanicOnDemand.controller;
 
 import com.mechanicOnDemand.dto.BookingRequest;
+import com.mechanicOnDemand.dto.BookingSummary;
+import com.mechanicOnDemand.dto.CursorPage;
 import com.mechanicOnDemand.dto.MessageResponse;
+import com.mechanicOnDemand.dto.NearbyMechanicResponse;
+import com.mechanicOnDemand.dto.ReviewRequest;
 import com.mechanicOnDemand.model.Booking;
+import com.mechanicOnDemand.model.BookingStatus;
 import com.mechanicOnDemand.model.Mechanic;
+import com.mechanicOnDemand.model.Review;
 import com.mechanicOnDemand.model.User;
+import com.mechanicOnDemand.service.BookingConflictException;
+import com.mechanicOnDemand.service.BookingIdempotencyService;
 import com.mechanicOnDemand.service.BookingService;
 import com.mechanicOnDemand.service.MechanicService;
+import com.mechanicOnDemand.service.ReviewService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -27,6 +43,12 @@ public class CustomerController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingIdempotencyService bookingIdempotencyService;
+
+    @Autowired
+    private ReviewService reviewService;
+
     @GetMapping("/mechanics")
     public ResponseEntity<List<Mechanic>> getAllMechanics() {
         List<Mechanic> mechanics = mechanicService.getAvailableMechanics();
@@ -45,12 +67,65 @@ public class CustomerController {
         return ResponseEntity.ok(mechanics);
     }
 
+    @GetMapping("/mechanics/nearby")
+    public ResponseEntity<?> getNearbyMechanics(@RequestParam(required = false) Double lat,
+                                                @RequestParam(required = false) Double lon,
+                                                @RequestParam(required = false) String pincode,
+                                                @RequestParam(defaultValue = "10") double radius,
+                                                @RequestParam(defaultValue = "20") int k,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeAt,
+                                                @RequestParam(defaultValue = "60") int durationMinutes) {
+        try {
+            List<NearbyMechanicResponse> mechanics;
+            Duration duration = Duration.ofMinutes(durationMinutes);
+            if (lat != null && lon != null) {
+                mechanics = freeAt == null ? mechanicService.getNearbyMechanics(lat, lon, radius, k)
+                        : mechanicService.getNearbyFreeMechanics(lat, lon, radius, k, freeAt, duration);
+            } else if (pincode != null) {
+                mechanics = freeAt == null ? mechanicService.getNearbyMechanics(pincode, radius, k)
+                        : mechanicService.getNearbyFreeMechanics(pincode, radius, k, freeAt, duration);
+            } else {
+                throw new RuntimeException("Either lat and lon or pincode is required");
+            }
+            return ResponseEntity.ok(mechanics);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/mechanics/search")
-    public ResponseEntity<List<Mechanic>> searchMechanics(@RequestParam String skill) {
-        List<Mechanic> mechanics = mechanicService.searchMechanicsBySkill(skill);
+    public ResponseEntity<List<Mechanic>> searchMechanics(@RequestParam(required = false) String skill,
+                                                         @RequestParam(required = false) List<String> skills,
+                                                         @RequestParam(defaultValue = "all") String match,
+                                                         @RequestParam(required = false) String city,
+                                                         @RequestParam(required = false) String pincode,
+                                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeAt,
+                                                         @RequestParam(defaultValue = "60") int durationMinutes) {
+        List<String> phrases = new ArrayList<>();
+        if (skill != null) {
+            phrases.add(skill);
+        }
+        if (skills != null) {
+            phrases.addAll(skills);
+        }
+        List<Mechanic> mechanics = mechanicService.searchMechanicsBySkills(phrases, !"any".equalsIgnoreCase(match), city, pincode);
+        if (freeAt != null) {
+            mechanics = mechanicService.filterFree(mechanics, freeAt, Duration.ofMinutes(durationMinutes));
+        }
         return ResponseEntity.ok(mechanics);
     }
 
+    @GetMapping("/mechanics/{id}/next-free-slot")
+    public ResponseEntity<?> getNextFreeSlot(@PathVariable Long id,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam(defaultValue = "60") int durationMinutes) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        Map<String, Object> slot = new LinkedHashMap<>();
+        slot.put("mechanicId", id);
+        slot.put("nextFreeSlot", mechanicService.getNextFreeSlot(id, start, Duration.ofMinutes(durationMinutes)));
+        return ResponseEntity.ok(slot);
+    }
+
     @GetMapping("/mechanics/{id}")
     public ResponseEntity<Mechanic> getMechanicById(@PathVariable Long id) {
         return mechanicService.getMechanicById(id)
@@ -60,11 +135,14 @@ public class CustomerController {
 
     @PostMapping("/bookings")
     public ResponseEntity<?> createBooking(@Valid @RequestBody BookingRequest bookingRequest, 
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
                                          Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            Booking booking = bookingService.createBooking(user.getId(), bookingRequest);
+            Booking booking = bookingIdempotencyService.createBooking(user.getId(), bookingRequest, idempotencyKey);
             return ResponseEntity.ok(booking);
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
         }
@@ -77,6 +155,20 @@ public class CustomerController {
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping("/bookings/page")
+    public ResponseEntity<?> getMyBookingPage(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int size,
+                                              @RequestParam(required = false) BookingStatus status,
+                                              Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            CursorPage<BookingSummary> page = bookingService.getBookingPageByCustomer(user.getId(), status, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/bookings/{id}")
     public ResponseEntity<Booking> getBookingById(@PathVariable Long id, Authentication authentication) {
         User user = (User) authentication.getPrincipal();
@@ -90,14 +182,26 @@ public class CustomerController {
     public ResponseEntity<?> cancelBooking(@PathVariable Long id, Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            Booking booking = bookingService.getBookingById(id)
-                    .filter(b -> b.getCustomer().getId().equals(user.getId()))
-                    .orElseThrow(() -> new RuntimeException("Booking not found"));
-            
-            bookingService.cancelBooking(id);
+            bookingService.cancelBooking(id, user.getId());
             return ResponseEntity.ok(new MessageResponse("Booking cancelled successfully"));
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/bookings/{id}/review")
+    public ResponseEntity<?> reviewBooking(@PathVariable Long id, @Valid @RequestBody ReviewRequest reviewRequest,
+                                           Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            Review review = reviewService.submitReview(id, user.getId(), reviewRequest);
+            return ResponseEntity.ok(review);
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,22 @@
 package com.mechanicOnDemand.controller;
 
+import com.mechanicOnDemand.dto.BookingSummary;
+import com.mechanicOnDemand.dto.BulkBookingStatusRequest;
+import com.mechanicOnDemand.dto.BulkBookingStatusResult;
+import com.mechanicOnDemand.dto.CursorPage;
 import com.mechanicOnDemand.dto.MechanicProfileRequest;
 import com.mechanicOnDemand.dto.MessageResponse;
 import com.mechanicOnDemand.model.Booking;
 import com.mechanicOnDemand.model.BookingStatus;
 import com.mechanicOnDemand.model.Mechanic;
 import com.mechanicOnDemand.model.User;
+import com.mechanicOnDemand.service.BookingConflictException;
 import com.mechanicOnDemand.service.BookingService;
 import com.mechanicOnDemand.service.MechanicService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -73,6 +80,23 @@ public class MechanicController {
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping("/bookings/page")
+    public ResponseEntity<?> getMyBookingPage(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int size,
+                                              @RequestParam(required = false) BookingStatus status,
+                                              Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            Mechanic mechanic = mechanicService.getMechanicByUserId(user.getId())
+                    .orElseThrow(() -> new RuntimeException("Mechanic profile not found"));
+
+            CursorPage<BookingSummary> page = bookingService.getBookingPageByMechanic(mechanic.getId(), status, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/bookings/{id}")
     public ResponseEntity<Booking> getBookingById(@PathVariable Long id, Authentication authentication) {
         User user = (User) authentication.getPrincipal();
@@ -80,26 +104,36 @@ public class MechanicController {
                 .orElseThrow(() -> new RuntimeException("Mechanic profile not found"));
         
         return bookingService.getBookingById(id)
-                .filter(booking -> booking.getMechanic().getId().equals(mechanic.getId()))
+                .filter(booking -> bookingService.isVisibleToMechanic(booking, mechanic.getId()))
                 .map(booking -> ResponseEntity.ok().body(booking))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PutMapping("/bookings/bulk")
+    public ResponseEntity<?> bulkUpdateBookingStatus(@Valid @RequestBody BulkBookingStatusRequest request,
+                                                     Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            List<BulkBookingStatusResult> results = bookingService.bulkUpdateBookingStatus(user.getId(), request.getItems());
+            return ResponseEntity.ok(results);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Error: Some bookings were changed by someone else, please reload and try again"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
     @PutMapping("/bookings/{id}/accept")
     public ResponseEntity<?> acceptBooking(@PathVariable Long id, 
                                          @RequestParam(required = false) String notes,
                                          Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            Mechanic mechanic = mechanicService.getMechanicByUserId(user.getId())
-                    .orElseThrow(() -> new RuntimeException("Mechanic profile not found"));
-            
-            Booking booking = bookingService.getBookingById(id)
-                    .filter(b -> b.getMechanic().getId().equals(mechanic.getId()))
-                    .orElseThrow(() -> new RuntimeException("Booking not found"));
-            
-            Booking updatedBooking = bookingService.updateBookingStatus(id, BookingStatus.ACCEPTED, notes);
+            Booking updatedBooking = bookingService.updateBookingStatus(id, user.getId(), BookingStatus.ACCEPTED, notes);
             return ResponseEntity.ok(updatedBooking);
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
         }
@@ -111,15 +145,25 @@ public class MechanicController {
                                          Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            Mechanic mechanic = mechanicService.getMechanicByUserId(user.getId())
-                    .orElseThrow(() -> new RuntimeException("Mechanic profile not found"));
-            
-            Booking booking = bookingService.getBookingById(id)
-                    .filter(b -> b.getMechanic().getId().equals(mechanic.getId()))
-                    .orElseThrow(() -> new RuntimeException("Booking not found"));
-            
-            Booking updatedBooking = bookingService.updateBookingStatus(id, BookingStatus.REJECTED, notes);
+            Booking updatedBooking = bookingService.updateBookingStatus(id, user.getId(), BookingStatus.REJECTED, notes);
+            return ResponseEntity.ok(updatedBooking);
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    @PutMapping("/bookings/{id}/start")
+    public ResponseEntity<?> startBooking(@PathVariable Long id, 
+                                        @RequestParam(required = false) String notes,
+                                        Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            Booking updatedBooking = bookingService.updateBookingStatus(id, user.getId(), BookingStatus.IN_PROGRESS, notes);
             return ResponseEntity.ok(updatedBooking);
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
         }
@@ -131,15 +175,10 @@ public class MechanicController {
                                            Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            Mechanic mechanic = mechanicService.getMechanicByUserId(user.getId())
-                    .orElseThrow(() -> new RuntimeException("Mechanic profile not found"));
-            
-            Booking booking = bookingService.getBookingById(id)
-                    .filter(b -> b.getMechanic().getId().equals(mechanic.getId()))
-                    .orElseThrow(() -> new RuntimeException("Booking not found"));
-            
-            Booking updatedBooking = bookingService.updateBookingStatus(id, BookingStatus.COMPLETED, notes);
+            Booking updatedBooking = bookingService.updateBookingStatus(id, user.getId(), BookingStatus.COMPLETED, notes);
             return ResponseEntity.ok(updatedBooking);
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
         }
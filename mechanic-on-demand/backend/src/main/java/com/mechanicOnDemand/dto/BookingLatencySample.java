@@ -0,0 +1,31 @@
+package com.mechanicOnDemand.dto;
+
+import java.time.LocalDateTime;
+
+// The few booking columns the latency histograms are rebuilt from
+public class BookingLatencySample {
+    private Long id;
+    private String city;
+    private Long mechanicId;
+    private LocalDateTime createdAt;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime completedAt;
+
+    public BookingLatencySample(Long id, String city, Long mechanicId, LocalDateTime createdAt,
+                                LocalDateTime acceptedAt, LocalDateTime completedAt) {
+        this.id = id;
+        this.city = city;
+        this.mechanicId = mechanicId;
+        this.createdAt = createdAt;
+        this.acceptedAt = acceptedAt;
+        this.completedAt = completedAt;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getCity() { return city; }
+    public Long getMechanicId() { return mechanicId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getAcceptedAt() { return acceptedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+}
@@ -0,0 +1,17 @@
+package com.mechanicOnDemand.dto;
+
+import com.mechanicOnDemand.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+// Columns of the admin booking grid, flattened with customer and mechanic names
+public interface BookingListItem {
+    Long getId();
+    BookingStatus getStatus();
+    String getProblemDescription();
+    LocalDateTime getCreatedAt();
+    Long getCustomerId();
+    String getCustomerName();
+    Long getMechanicId();
+    String getMechanicName();
+}
@@ -1,13 +1,16 @@
 package com.mechanicOnDemand.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 import java.time.LocalDateTime;
 
 public class BookingRequest {
-    @NotNull
+    // Leave empty to offer the job to nearby mechanics instead of one chosen mechanic
     private Long mechanicId;
 
     @NotBlank
@@ -26,6 +29,22 @@ public class BookingRequest {
 
     private LocalDateTime preferredDateTime;
 
+    @Min(15)
+    @Max(720)
+    private Integer estimatedDurationMinutes;
+
+    // Open bookings only: skills the mechanic must have and where the job is
+    @Size(max = 200)
+    private String requiredSkills;
+
+    @DecimalMin(value = "-90.0")
+    @DecimalMax(value = "90.0")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0")
+    @DecimalMax(value = "180.0")
+    private Double longitude;
+
     public BookingRequest() {}
 
     public BookingRequest(Long mechanicId, String problemDescription, String serviceLocation) {
@@ -52,4 +71,16 @@ public class BookingRequest {
 
     public LocalDateTime getPreferredDateTime() { return preferredDateTime; }
     public void setPreferredDateTime(LocalDateTime preferredDateTime) { this.preferredDateTime = preferredDateTime; }
-}
\ No newline at end of file
+
+    public Integer getEstimatedDurationMinutes() { return estimatedDurationMinutes; }
+    public void setEstimatedDurationMinutes(Integer estimatedDurationMinutes) { this.estimatedDurationMinutes = estimatedDurationMinutes; }
+
+    public String getRequiredSkills() { return requiredSkills; }
+    public void setRequiredSkills(String requiredSkills) { this.requiredSkills = requiredSkills; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+}
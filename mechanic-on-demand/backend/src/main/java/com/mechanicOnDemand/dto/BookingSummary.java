@@ -0,0 +1,77 @@
+package com.mechanicOnDemand.dto;
+
+import com.mechanicOnDemand.model.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Flat read model for booking lists, filled by a single JPQL constructor expression
+public class BookingSummary {
+    private Long id;
+    private BookingStatus status;
+    private String problemDescription;
+    private String vehicleType;
+    private String vehicleModel;
+    private String serviceLocation;
+    private LocalDateTime preferredDateTime;
+    private BigDecimal estimatedCost;
+    private BigDecimal finalCost;
+    private String mechanicNotes;
+    private LocalDateTime createdAt;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime completedAt;
+    private Long customerId;
+    private String customerName;
+    private String customerPhone;
+    private Long mechanicId;
+    private String mechanicName;
+    private String mechanicPhone;
+
+    public BookingSummary(Long id, BookingStatus status, String problemDescription, String vehicleType,
+                          String vehicleModel, String serviceLocation, LocalDateTime preferredDateTime,
+                          BigDecimal estimatedCost, BigDecimal finalCost, String mechanicNotes,
+                          LocalDateTime createdAt, LocalDateTime acceptedAt, LocalDateTime completedAt,
+                          Long customerId, String customerName, String customerPhone,
+                          Long mechanicId, String mechanicName, String mechanicPhone) {
+        this.id = id;
+        this.status = status;
+        this.problemDescription = problemDescription;
+        this.vehicleType = vehicleType;
+        this.vehicleModel = vehicleModel;
+        this.serviceLocation = serviceLocation;
+        this.preferredDateTime = preferredDateTime;
+        this.estimatedCost = estimatedCost;
+        this.finalCost = finalCost;
+        this.mechanicNotes = mechanicNotes;
+        this.createdAt = createdAt;
+        this.acceptedAt = acceptedAt;
+        this.completedAt = completedAt;
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.customerPhone = customerPhone;
+        this.mechanicId = mechanicId;
+        this.mechanicName = mechanicName;
+        this.mechanicPhone = mechanicPhone;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public BookingStatus getStatus() { return status; }
+    public String getProblemDescription() { return problemDescription; }
+    public String getVehicleType() { return vehicleType; }
+    public String getVehicleModel() { return vehicleModel; }
+    public String getServiceLocation() { return serviceLocation; }
+    public LocalDateTime getPreferredDateTime() { return preferredDateTime; }
+    public BigDecimal getEstimatedCost() { return estimatedCost; }
+    public BigDecimal getFinalCost() { return finalCost; }
+    public String getMechanicNotes() { return mechanicNotes; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getAcceptedAt() { return acceptedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public Long getCustomerId() { return customerId; }
+    public String getCustomerName() { return customerName; }
+    public String getCustomerPhone() { return customerPhone; }
+    public Long getMechanicId() { return mechanicId; }
+    public String getMechanicName() { return mechanicName; }
+    public String getMechanicPhone() { return mechanicPhone; }
+}
@@ -0,0 +1,42 @@
+package com.mechanicOnDemand.dto;
+
+import com.mechanicOnDemand.model.Role;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class BroadcastRequest {
+    @NotBlank
+    @Size(max = 200)
+    private String title;
+
+    @NotBlank
+    @Size(max = 1000)
+    private String message;
+
+    // Segment filters; leave all empty to reach every active user
+    private Role role;
+
+    @Size(max = 50)
+    private String city;
+
+    @Size(max = 10)
+    private String pincode;
+
+    public BroadcastRequest() {}
+
+    // Getters and Setters
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Role getRole() { return role; }
+    public void setRole(Role role) { this.role = role; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public String getPincode() { return pincode; }
+    public void setPincode(String pincode) { this.pincode = pincode; }
+}
@@ -0,0 +1,43 @@
+package com.mechanicOnDemand.dto;
+
+import com.mechanicOnDemand.model.BookingStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkBookingStatusRequest {
+    @NotEmpty
+    @Valid
+    private List<Item> items;
+
+    public BulkBookingStatusRequest() {}
+
+    // Getters and Setters
+    public List<Item> getItems() { return items; }
+    public void setItems(List<Item> items) { this.items = items; }
+
+    public static class Item {
+        @NotNull
+        private Long bookingId;
+
+        @NotNull
+        private BookingStatus status;
+
+        @Size(max = 1000)
+        private String notes;
+
+        public Item() {}
+
+        public Long getBookingId() { return bookingId; }
+        public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+
+        public BookingStatus getStatus() { return status; }
+        public void setStatus(BookingStatus status) { this.status = status; }
+
+        public String getNotes() { return notes; }
+        public void setNotes(String notes) { this.notes = notes; }
+    }
+}
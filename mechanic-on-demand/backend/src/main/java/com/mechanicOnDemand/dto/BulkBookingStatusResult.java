@@ -0,0 +1,31 @@
+package com.mechanicOnDemand.dto;
+
+import com.mechanicOnDemand.model.BookingStatus;
+
+public class BulkBookingStatusResult {
+    private Long bookingId;
+    private boolean success;
+    private BookingStatus status;
+    private String error;
+
+    public BulkBookingStatusResult(Long bookingId, boolean success, BookingStatus status, String error) {
+        this.bookingId = bookingId;
+        this.success = success;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BulkBookingStatusResult updated(Long bookingId, BookingStatus status) {
+        return new BulkBookingStatusResult(bookingId, true, status, null);
+    }
+
+    public static BulkBookingStatusResult failed(Long bookingId, String error) {
+        return new BulkBookingStatusResult(bookingId, false, null, error);
+    }
+
+    // Getters
+    public Long getBookingId() { return bookingId; }
+    public boolean isSuccess() { return success; }
+    public BookingStatus getStatus() { return status; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,20 @@
+package com.mechanicOnDemand.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Columns of the admin mechanic grid, flattened with the mechanic's user
+public interface MechanicListItem {
+    Long getId();
+    Long getUserId();
+    String getFullName();
+    String getCity();
+    String getSkills();
+    Integer getYearsOfExperience();
+    BigDecimal getHourlyRate();
+    BigDecimal getRating();
+    Integer getTotalReviews();
+    Boolean getIsVerified();
+    Boolean getIsAvailable();
+    LocalDateTime getCreatedAt();
+}
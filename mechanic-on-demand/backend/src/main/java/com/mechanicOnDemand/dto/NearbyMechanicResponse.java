@@ -0,0 +1,84 @@
+package com.mechanicOnDemand.dto;
+
+import java.math.BigDecimal;
+
+public class NearbyMechanicResponse {
+    private Long mechanicId;
+    private Long userId;
+    private String fullName;
+    private String phoneNumber;
+    private String city;
+    private String pincode;
+    private String skills;
+    private BigDecimal hourlyRate;
+    private BigDecimal rating;
+    private Integer totalReviews;
+    private Integer yearsOfExperience;
+    private double latitude;
+    private double longitude;
+    private Double distanceKm;
+
+    public NearbyMechanicResponse() {}
+
+    public NearbyMechanicResponse withDistance(double distanceKm) {
+        NearbyMechanicResponse copy = new NearbyMechanicResponse();
+        copy.mechanicId = mechanicId;
+        copy.userId = userId;
+        copy.fullName = fullName;
+        copy.phoneNumber = phoneNumber;
+        copy.city = city;
+        copy.pincode = pincode;
+        copy.skills = skills;
+        copy.hourlyRate = hourlyRate;
+        copy.rating = rating;
+        copy.totalReviews = totalReviews;
+        copy.yearsOfExperience = yearsOfExperience;
+        copy.latitude = latitude;
+        copy.longitude = longitude;
+        copy.distanceKm = Math.round(distanceKm * 100.0) / 100.0;
+        return copy;
+    }
+
+    // Getters and Setters
+    public Long getMechanicId() { return mechanicId; }
+    public void setMechanicId(Long mechanicId) { this.mechanicId = mechanicId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getFullName() { return fullName; }
+    public void setFullName(String fullName) { this.fullName = fullName; }
+
+    public String getPhoneNumber() { return phoneNumber; }
+    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public String getPincode() { return pincode; }
+    public void setPincode(String pincode) { this.pincode = pincode; }
+
+    public String getSkills() { return skills; }
+    public void setSkills(String skills) { this.skills = skills; }
+
+    public BigDecimal getHourlyRate() { return hourlyRate; }
+    public void setHourlyRate(BigDecimal hourlyRate) { this.hourlyRate = hourlyRate; }
+
+    public BigDecimal getRating() { return rating; }
+    public void setRating(BigDecimal rating) { this.rating = rating; }
+
+    public Integer getTotalReviews() { return totalReviews; }
+    public void setTotalReviews(Integer totalReviews) { this.totalReviews = totalReviews; }
+
+    public Integer getYearsOfExperience() { return yearsOfExperience; }
+    public void setYearsOfExperience(Integer yearsOfExperience) { this.yearsOfExperience = yearsOfExperience; }
+
+    public double getLatitude() { return latitude; }
+    public void setLatitude(double latitude) { this.latitude = latitude; }
+
+    public double getLongitude() { return longitude; }
+    public void setLongitude(double longitude) { this.longitude = longitude; }
+
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
+}
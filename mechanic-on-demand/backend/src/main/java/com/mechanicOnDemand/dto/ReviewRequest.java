@@ -0,0 +1,27 @@
+package com.mechanicOnDemand.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public class ReviewRequest {
+    @NotNull
+    @DecimalMin(value = "1.0")
+    @DecimalMax(value = "5.0")
+    private BigDecimal rating;
+
+    @Size(max = 1000)
+    private String comment;
+
+    public ReviewRequest() {}
+
+    // Getters and Setters
+    public BigDecimal getRating() { return rating; }
+    public void setRating(BigDecimal rating) { this.rating = rating; }
+
+    public String getComment() { return comment; }
+    public void setComment(String comment) { this.comment = comment; }
+}
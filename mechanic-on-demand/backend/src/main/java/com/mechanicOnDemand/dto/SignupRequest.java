@@ -1,6 +1,8 @@
 package com.mechanicOnDemand.dto;
 
 import com.mechanicOnDemand.model.Role;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -35,6 +37,14 @@ public class SignupRequest {
     @Size(max = 10)
     private String pincode;
 
+    @DecimalMin(value = "-90.0")
+    @DecimalMax(value = "90.0")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0")
+    @DecimalMax(value = "180.0")
+    private Double longitude;
+
     private Role role;
 
     public SignupRequest() {}
@@ -72,6 +82,12 @@ public class SignupRequest {
     public String getPincode() { return pincode; }
     public void setPincode(String pincode) { this.pincode = pincode; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public Role getRole() { return role; }
     public void setRole(Role role) { this.role = role; }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.mechanicOnDemand.dto;
+
+import com.mechanicOnDemand.model.Role;
+
+import java.time.LocalDateTime;
+
+// Columns of the admin user grid, selected directly instead of loading User entities
+public interface UserListItem {
+    Long getId();
+    String getUsername();
+    String getEmail();
+    String getFullName();
+    String getPhoneNumber();
+    String getCity();
+    String getPincode();
+    Role getRole();
+    Boolean getIsActive();
+    LocalDateTime getCreatedAt();
+}
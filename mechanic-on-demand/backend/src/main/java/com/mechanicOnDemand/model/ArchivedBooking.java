@@ -0,0 +1,136 @@
+package com.mechanicOnDemand.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A finished booking moved out of the live bookings table. Columns match {@link Booking} one to one so rows
+ * can be copied with a single INSERT ... SELECT; the id is kept, so links to a booking stay valid after archival.
+ */
+@Entity
+@Table(name = "bookings_archive", indexes = {
+        @Index(name = "idx_bookings_archive_customer_created", columnList = "customer_id, created_at, id"),
+        @Index(name = "idx_bookings_archive_customer_status_created", columnList = "customer_id, status, created_at, id"),
+        @Index(name = "idx_bookings_archive_mechanic_created", columnList = "mechanic_id, created_at, id"),
+        @Index(name = "idx_bookings_archive_status", columnList = "status")
+})
+public class ArchivedBooking {
+    @Id
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "customer_id", referencedColumnName = "id")
+    private User customer;
+
+    @ManyToOne
+    @JoinColumn(name = "mechanic_id", referencedColumnName = "id")
+    private Mechanic mechanic;
+
+    @Column(length = 1000)
+    private String problemDescription;
+
+    @Column(length = 50)
+    private String vehicleType;
+
+    @Column(length = 50)
+    private String vehicleModel;
+
+    @Column(length = 200)
+    private String serviceLocation;
+
+    @Column(name = "preferred_date_time")
+    private LocalDateTime preferredDateTime;
+
+    @Column(name = "estimated_duration_minutes")
+    private Integer estimatedDurationMinutes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private BookingStatus status;
+
+    private BigDecimal estimatedCost;
+
+    private BigDecimal finalCost;
+
+    @Column(length = 1000)
+    private String mechanicNotes;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "accepted_at")
+    private LocalDateTime acceptedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "required_skills", length = 200)
+    private String requiredSkills;
+
+    @Column(name = "service_latitude")
+    private Double serviceLatitude;
+
+    @Column(name = "service_longitude")
+    private Double serviceLongitude;
+
+    private Long version;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public ArchivedBooking() {
+    }
+
+    // Detached Booking view, so callers reading history do not need to know which table a booking lives in
+    public Booking toBooking() {
+        Booking booking = new Booking(customer, mechanic, problemDescription, serviceLocation);
+        booking.setId(id);
+        booking.setVehicleType(vehicleType);
+        booking.setVehicleModel(vehicleModel);
+        booking.setPreferredDateTime(preferredDateTime);
+        booking.setEstimatedDurationMinutes(estimatedDurationMinutes);
+        booking.setStatus(status);
+        booking.setEstimatedCost(estimatedCost);
+        booking.setFinalCost(finalCost);
+        booking.setMechanicNotes(mechanicNotes);
+        booking.setCreatedAt(createdAt);
+        booking.setUpdatedAt(updatedAt);
+        booking.setAcceptedAt(acceptedAt);
+        booking.setCompletedAt(completedAt);
+        booking.setRequiredSkills(requiredSkills);
+        booking.setServiceLatitude(serviceLatitude);
+        booking.setServiceLongitude(serviceLongitude);
+        booking.setVersion(version);
+        return booking;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public User getCustomer() { return customer; }
+    public Mechanic getMechanic() { return mechanic; }
+    public String getProblemDescription() { return problemDescription; }
+    public String getVehicleType() { return vehicleType; }
+    public String getVehicleModel() { return vehicleModel; }
+    public String getServiceLocation() { return serviceLocation; }
+    public LocalDateTime getPreferredDateTime() { return preferredDateTime; }
+    public Integer getEstimatedDurationMinutes() { return estimatedDurationMinutes; }
+    public BookingStatus getStatus() { return status; }
+    public BigDecimal getEstimatedCost() { return estimatedCost; }
+    public BigDecimal getFinalCost() { return finalCost; }
+    public String getMechanicNotes() { return mechanicNotes; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public LocalDateTime getAcceptedAt() { return acceptedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public String getRequiredSkills() { return requiredSkills; }
+    public Double getServiceLatitude() { return serviceLatitude; }
+    public Double getServiceLongitude() { return serviceLongitude; }
+    public Long getVersion() { return version; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
@@ -8,10 +8,18 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_customer_created", columnList = "customer_id, created_at, id"),
+        @Index(name = "idx_bookings_customer_status_created", columnList = "customer_id, status, created_at, id"),
+        @Index(name = "idx_bookings_mechanic_created", columnList = "mechanic_id, created_at, id"),
+        @Index(name = "idx_bookings_mechanic_status_created", columnList = "mechanic_id, status, created_at, id"),
+        @Index(name = "idx_bookings_status_created", columnList = "status, created_at, id")
+})
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "booking_ids")
+    @TableGenerator(name = "booking_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "bookings", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
@@ -38,6 +46,9 @@ public class Booking {
     @Column(name = "preferred_date_time")
     private LocalDateTime preferredDateTime;
 
+    @Column(name = "estimated_duration_minutes")
+    private Integer estimatedDurationMinutes;
+
     @Enumerated(EnumType.STRING)
     @Column(length = 20)
     private BookingStatus status = BookingStatus.PENDING;
@@ -61,6 +72,21 @@ public class Booking {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    // Set on open bookings so dispatch can resume after a restart
+    @Size(max = 200)
+    @Column(name = "required_skills")
+    private String requiredSkills;
+
+    @Column(name = "service_latitude")
+    private Double serviceLatitude;
+
+    @Column(name = "service_longitude")
+    private Double serviceLongitude;
+
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private Long version;
+
     // Constructors
     public Booking() {
         this.createdAt = LocalDateTime.now();
@@ -115,6 +141,9 @@ public class Booking {
     public BookingStatus getStatus() { return status; }
     public void setStatus(BookingStatus status) { this.status = status; }
 
+    public Integer getEstimatedDurationMinutes() { return estimatedDurationMinutes; }
+    public void setEstimatedDurationMinutes(Integer estimatedDurationMinutes) { this.estimatedDurationMinutes = estimatedDurationMinutes; }
+
     public BigDecimal getEstimatedCost() { return estimatedCost; }
     public void setEstimatedCost(BigDecimal estimatedCost) { this.estimatedCost = estimatedCost; }
 
@@ -135,4 +164,16 @@ public class Booking {
 
     public LocalDateTime getCompletedAt() { return completedAt; }
     public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public String getRequiredSkills() { return requiredSkills; }
+    public void setRequiredSkills(String requiredSkills) { this.requiredSkills = requiredSkills; }
+
+    public Double getServiceLatitude() { return serviceLatitude; }
+    public void setServiceLatitude(Double serviceLatitude) { this.serviceLatitude = serviceLatitude; }
+
+    public Double getServiceLongitude() { return serviceLongitude; }
+    public void setServiceLongitude(Double serviceLongitude) { this.serviceLongitude = serviceLongitude; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.mechanicOnDemand.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// An open booking offered to one mechanic; only offered mechanics can claim the booking, on any node
+@Entity
+@Table(name = "booking_offers",
+       uniqueConstraints = @UniqueConstraint(name = "uk_booking_offers_booking_mechanic", columnNames = {"booking_id", "mechanic_id"}))
+public class BookingOffer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "booking_offer_ids")
+    @TableGenerator(name = "booking_offer_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "booking_offers", allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "mechanic_id", nullable = false)
+    private Long mechanicId;
+
+    @Column(name = "offered_at", nullable = false)
+    private LocalDateTime offeredAt;
+
+    // Constructors
+    public BookingOffer() {
+    }
+
+    public BookingOffer(Long bookingId, Long mechanicId, LocalDateTime offeredAt) {
+        this.bookingId = bookingId;
+        this.mechanicId = mechanicId;
+        this.offeredAt = offeredAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+
+    public Long getMechanicId() { return mechanicId; }
+    public void setMechanicId(Long mechanicId) { this.mechanicId = mechanicId; }
+
+    public LocalDateTime getOfferedAt() { return offeredAt; }
+    public void setOfferedAt(LocalDateTime offeredAt) { this.offeredAt = offeredAt; }
+}
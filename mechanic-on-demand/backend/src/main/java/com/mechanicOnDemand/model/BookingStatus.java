@@ -6,5 +6,6 @@ public enum BookingStatus {
     IN_PROGRESS,
     COMPLETED,
     CANCELLED,
-    REJECTED
+    REJECTED,
+    EXPIRED
 }
\ No newline at end of file
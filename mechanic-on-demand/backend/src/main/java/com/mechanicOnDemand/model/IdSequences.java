@@ -0,0 +1,13 @@
+package com.mechanicOnDemand.model;
+
+// Shared settings of the table-backed id generators. Ids are reserved in blocks of ALLOCATION_SIZE,
+// so a node hands out that many ids per round trip and Hibernate can batch the INSERTs.
+public final class IdSequences {
+    public static final String TABLE = "id_sequences";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdSequences() {
+    }
+}
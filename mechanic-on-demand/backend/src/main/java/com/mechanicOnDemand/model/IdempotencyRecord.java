@@ -0,0 +1,63 @@
+package com.mechanicOnDemand.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Remembers which booking an Idempotency-Key produced; the unique key lets only one request per key create a booking
+@Entity
+@Table(name = "idempotency_keys",
+       uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_customer_key", columnNames = {"customer_id", "idem_key"}),
+       indexes = @Index(name = "idx_idempotency_created", columnList = "created_at"))
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "idem_key", length = 100, nullable = false)
+    private String idemKey;
+
+    // Digest of the request body, so a key reused for a different request is refused instead of replayed
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public IdempotencyRecord() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public IdempotencyRecord(Long customerId, String idemKey, String requestHash) {
+        this();
+        this.customerId = customerId;
+        this.idemKey = idemKey;
+        this.requestHash = requestHash;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getIdemKey() { return idemKey; }
+    public void setIdemKey(String idemKey) { this.idemKey = idemKey; }
+
+    public String getRequestHash() { return requestHash; }
+    public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
+
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -1,20 +1,29 @@
 package com.mechanicOnDemand.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mechanicOnDemand.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.MECHANICS_REGION)
 @Table(name = "mechanics")
 public class Mechanic {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "mechanic_ids")
+    @TableGenerator(name = "mechanic_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "mechanics", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @OneToOne
@@ -24,6 +33,15 @@ public class Mechanic {
     @Size(max = 500)
     private String skills;
 
+    // Normalized skill tokens derived from the free-text skills column
+    @JsonIgnore
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "mechanic_skills",
+            joinColumns = @JoinColumn(name = "mechanic_id"),
+            indexes = @Index(name = "idx_mechanic_skills_skill", columnList = "skill"))
+    @Column(name = "skill", length = 50)
+    private Set<String> skillTokens = new HashSet<>();
+
     @Size(max = 1000)
     private String description;
 
@@ -50,12 +68,18 @@ public class Mechanic {
     @Column(name = "total_reviews")
     private Integer totalReviews = 0;
 
+    // Sum of all review ratings, so a new review updates rating without re-reading the others
+    @JsonIgnore
+    @Column(name = "rating_sum")
+    private BigDecimal ratingSum = BigDecimal.ZERO;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "mechanic", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Booking> bookings;
 
@@ -94,6 +118,9 @@ public class Mechanic {
     public String getSkills() { return skills; }
     public void setSkills(String skills) { this.skills = skills; }
 
+    public Set<String> getSkillTokens() { return skillTokens; }
+    public void setSkillTokens(Set<String> skillTokens) { this.skillTokens = skillTokens; }
+
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
@@ -118,6 +145,9 @@ public class Mechanic {
     public Integer getTotalReviews() { return totalReviews; }
     public void setTotalReviews(Integer totalReviews) { this.totalReviews = totalReviews; }
 
+    public BigDecimal getRatingSum() { return ratingSum; }
+    public void setRatingSum(BigDecimal ratingSum) { this.ratingSum = ratingSum; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
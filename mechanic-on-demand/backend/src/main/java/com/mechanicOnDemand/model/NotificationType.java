@@ -6,5 +6,6 @@ public enum NotificationType {
     BOOKING_REJECTED,
     BOOKING_COMPLETED,
     BOOKING_CANCELLED,
+    BOOKING_EXPIRED,
     SYSTEM_NOTIFICATION
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.mechanicOnDemand.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+// A pending side effect of a booking change, written in the same transaction as the change itself
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_outbox_recipient_status", columnList = "recipient_id, status, id")
+})
+public class OutboxEvent {
+    // Stays on IDENTITY: ids are taken at INSERT while OutboxService holds the recipient's outbox_recipients row,
+    // so one recipient's events are numbered in the order their transactions commit
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @Size(max = 50)
+    @Column(name = "recipient_username")
+    private String recipientUsername;
+
+    // Notification to persist for the recipient; null when the event is only a live update
+    @Enumerated(EnumType.STRING)
+    @Column(name = "notification_type", length = 20)
+    private NotificationType notificationType;
+
+    @Size(max = 200)
+    private String title;
+
+    @Size(max = 1000)
+    private String message;
+
+    // Live booking update to push; null when there is nothing to push
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "booking_status", length = 20)
+    private String bookingStatus;
+
+    @Size(max = 200)
+    @Column(name = "booking_message")
+    private String bookingMessage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    private int attempts;
+
+    @Size(max = 500)
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    // Constructors
+    public OutboxEvent() {
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public OutboxEvent(User recipient) {
+        this();
+        this.recipientId = recipient.getId();
+        this.recipientUsername = recipient.getUsername();
+    }
+
+    public OutboxEvent withNotification(String title, String message, NotificationType type) {
+        this.title = title;
+        this.message = message;
+        this.notificationType = type;
+        return this;
+    }
+
+    public OutboxEvent withBookingUpdate(Long bookingId, BookingStatus status, String bookingMessage) {
+        this.bookingId = bookingId;
+        this.bookingStatus = status.name();
+        this.bookingMessage = bookingMessage;
+        return this;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getRecipientId() { return recipientId; }
+    public void setRecipientId(Long recipientId) { this.recipientId = recipientId; }
+
+    public String getRecipientUsername() { return recipientUsername; }
+    public void setRecipientUsername(String recipientUsername) { this.recipientUsername = recipientUsername; }
+
+    public NotificationType getNotificationType() { return notificationType; }
+    public void setNotificationType(NotificationType notificationType) { this.notificationType = notificationType; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+
+    public String getBookingStatus() { return bookingStatus; }
+    public void setBookingStatus(String bookingStatus) { this.bookingStatus = bookingStatus; }
+
+    public String getBookingMessage() { return bookingMessage; }
+    public void setBookingMessage(String bookingMessage) { this.bookingMessage = bookingMessage; }
+
+    public OutboxStatus getStatus() { return status; }
+    public void setStatus(OutboxStatus status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+}
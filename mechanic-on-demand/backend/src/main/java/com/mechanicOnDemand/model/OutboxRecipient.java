@@ -0,0 +1,27 @@
+package com.mechanicOnDemand.model;
+
+import jakarta.persistence.*;
+
+// One row per user that has been sent outbox events; OutboxService locks it while enqueuing so the users row stays free
+@Entity
+@Table(name = "outbox_recipients")
+public class OutboxRecipient {
+    @Id
+    @Column(name = "recipient_id")
+    private Long recipientId;
+
+    // Number of events ever enqueued for the recipient
+    @Column(name = "next_seq", nullable = false)
+    private long nextSeq;
+
+    // Constructors
+    public OutboxRecipient() {
+    }
+
+    // Getters and Setters
+    public Long getRecipientId() { return recipientId; }
+    public void setRecipientId(Long recipientId) { this.recipientId = recipientId; }
+
+    public long getNextSeq() { return nextSeq; }
+    public void setNextSeq(long nextSeq) { this.nextSeq = nextSeq; }
+}
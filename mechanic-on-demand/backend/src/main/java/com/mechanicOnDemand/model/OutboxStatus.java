@@ -0,0 +1,7 @@
+package com.mechanicOnDemand.model;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
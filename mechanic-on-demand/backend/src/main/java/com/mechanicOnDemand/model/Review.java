@@ -12,13 +12,20 @@ import java.time.LocalDateTime;
 @Table(name = "reviews")
 public class Review {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "review_ids")
+    @TableGenerator(name = "review_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = "reviews", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
+    // One review per booking
     @OneToOne
-    @JoinColumn(name = "booking_id", referencedColumnName = "id")
+    @JoinColumn(name = "booking_id", referencedColumnName = "id", unique = true)
     private Booking booking;
 
+    // Id of the booking once it has been moved to bookings_archive; booking is null from then on
+    @Column(name = "archived_booking_id", unique = true)
+    private Long archivedBookingId;
+
     @ManyToOne
     @JoinColumn(name = "customer_id", referencedColumnName = "id")
     private User customer;
@@ -64,6 +71,9 @@ public class Review {
     public Booking getBooking() { return booking; }
     public void setBooking(Booking booking) { this.booking = booking; }
 
+    public Long getArchivedBookingId() { return archivedBookingId; }
+    public void setArchivedBookingId(Long archivedBookingId) { this.archivedBookingId = archivedBookingId; }
+
     public User getCustomer() { return customer; }
     public void setCustomer(User customer) { this.customer = customer; }
 
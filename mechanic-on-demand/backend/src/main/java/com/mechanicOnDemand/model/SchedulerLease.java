@@ -0,0 +1,34 @@
+package com.mechanicOnDemand.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// One row per background job (or open booking being dispatched); whichever node holds an unexpired lease is the only one running it
+@Entity
+@Table(name = "scheduler_leases")
+public class SchedulerLease {
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(length = 100)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+
+    // Constructors
+    public SchedulerLease() {
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(LocalDateTime leaseUntil) { this.leaseUntil = leaseUntil; }
+}
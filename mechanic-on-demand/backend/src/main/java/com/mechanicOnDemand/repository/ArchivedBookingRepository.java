@@ -0,0 +1,94 @@
+package com.mechanicOnDemand.repository;
+
+import com.mechanicOnDemand.dto.BookingLatencySample;
+import com.mechanicOnDemand.dto.BookingSummary;
+import com.mechanicOnDemand.model.ArchivedBooking;
+import com.mechanicOnDemand.model.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    String SUMMARY_SELECT = "SELECT new com.mechanicOnDemand.dto.BookingSummary(b.id, b.status, b.problemDescription, " +
+            "b.vehicleType, b.vehicleModel, b.serviceLocation, b.preferredDateTime, b.estimatedCost, b.finalCost, " +
+            "b.mechanicNotes, b.createdAt, b.acceptedAt, b.completedAt, c.id, c.fullName, c.phoneNumber, " +
+            "m.id, mu.fullName, mu.phoneNumber) FROM ArchivedBooking b JOIN b.customer c LEFT JOIN b.mechanic m LEFT JOIN m.user mu ";
+
+    // Copies finished bookings column for column; the caller deletes the originals in the same transaction
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "bookings_archive"))
+    @Query(value = "INSERT INTO bookings_archive (id, customer_id, mechanic_id, problem_description, vehicle_type, " +
+            "vehicle_model, service_location, preferred_date_time, estimated_duration_minutes, status, estimated_cost, " +
+            "final_cost, mechanic_notes, created_at, updated_at, accepted_at, completed_at, required_skills, " +
+            "service_latitude, service_longitude, version, archived_at) " +
+            "SELECT id, customer_id, mechanic_id, problem_description, vehicle_type, vehicle_model, service_location, " +
+            "preferred_date_time, estimated_duration_minutes, status, estimated_cost, final_cost, mechanic_notes, " +
+            "created_at, updated_at, accepted_at, completed_at, required_skills, service_latitude, service_longitude, " +
+            "version, :now FROM bookings WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromBookings(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
+    @Query("SELECT b FROM ArchivedBooking b WHERE b.id = :id")
+    Optional<ArchivedBooking> findWithPartiesById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
+    @Query("SELECT b FROM ArchivedBooking b WHERE b.customer.id = :customerId ORDER BY b.createdAt DESC")
+    List<ArchivedBooking> findByCustomerIdOrderByCreatedAtDesc(@Param("customerId") Long customerId);
+
+    @Query(SUMMARY_SELECT + "WHERE c.id = :customerId AND (:status IS NULL OR b.status = :status) " +
+           "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findCustomerBookingsBefore(@Param("customerId") Long customerId, @Param("status") BookingStatus status,
+                                                    @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
+    @Query("SELECT b FROM ArchivedBooking b WHERE b.mechanic.id = :mechanicId ORDER BY b.createdAt DESC")
+    List<ArchivedBooking> findByMechanicIdOrderByCreatedAtDesc(@Param("mechanicId") Long mechanicId);
+
+    @Query(SUMMARY_SELECT + "WHERE m.id = :mechanicId AND (:status IS NULL OR b.status = :status) " +
+           "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findMechanicBookingsBefore(@Param("mechanicId") Long mechanicId, @Param("status") BookingStatus status,
+                                                    @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BookingRepository.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM ArchivedBooking b WHERE b.createdAt BETWEEN :startDate AND :endDate " +
+           "AND (:status IS NULL OR b.status = :status) ORDER BY b.createdAt, b.id")
+    Stream<ArchivedBooking> streamBookingsBetweenDates(@Param("startDate") LocalDateTime startDate,
+                                                       @Param("endDate") LocalDateTime endDate,
+                                                       @Param("status") BookingStatus status);
+
+    @Query("SELECT MIN(b.id), MAX(b.id) FROM ArchivedBooking b WHERE b.acceptedAt IS NOT NULL")
+    List<Object[]> findAcceptedIdRange();
+
+    // Keyset scan over one id range, for rebuilding latency histograms
+    @Query("SELECT new com.mechanicOnDemand.dto.BookingLatencySample(b.id, c.city, m.id, b.createdAt, b.acceptedAt, " +
+           "b.completedAt) FROM ArchivedBooking b JOIN b.customer c JOIN b.mechanic m " +
+           "WHERE b.acceptedAt IS NOT NULL AND b.id > :afterId AND b.id <= :maxId ORDER BY b.id")
+    List<BookingLatencySample> findLatencySamples(@Param("afterId") Long afterId, @Param("maxId") Long maxId,
+                                                  Pageable pageable);
+
+    @Query("SELECT b.status, COUNT(b) FROM ArchivedBooking b GROUP BY b.status")
+    List<Object[]> countGroupedByStatus();
+
+    // Per-mechanic booking outcomes, for completion rates in the search ranking
+    @Query("SELECT b.mechanic.id, b.status, COUNT(b) FROM ArchivedBooking b WHERE b.mechanic IS NOT NULL AND b.status IN :statuses " +
+           "GROUP BY b.mechanic.id, b.status")
+    List<Object[]> countByMechanicGroupedByStatus(@Param("statuses") Collection<BookingStatus> statuses);
+}
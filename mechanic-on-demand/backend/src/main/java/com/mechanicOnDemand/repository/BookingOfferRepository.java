@@ -0,0 +1,27 @@
+package com.mechanicOnDemand.repository;
+
+import com.mechanicOnDemand.model.BookingOffer;
+import com.mechanicOnDemand.model.BookingStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BookingOfferRepository extends JpaRepository<BookingOffer, Long> {
+    boolean existsByBookingIdAndMechanicId(Long bookingId, Long mechanicId);
+
+    // Mechanic id and username of everyone already offered the booking, for a dispatch resumed on another node
+    @Query("SELECT o.mechanicId, u.username FROM BookingOffer o, Mechanic m JOIN m.user u " +
+           "WHERE m.id = o.mechanicId AND o.bookingId = :bookingId")
+    List<Object[]> findOfferedMechanics(@Param("bookingId") Long bookingId);
+
+    // Offers outlive their booking's dispatch only until the next resume pass
+    @Modifying
+    @Query("DELETE FROM BookingOffer o WHERE NOT EXISTS " +
+           "(SELECT b.id FROM Booking b WHERE b.id = o.bookingId AND b.status = :pending AND b.mechanic IS NULL)")
+    int deleteForClosedBookings(@Param("pending") BookingStatus pending);
+}
@@ -1,37 +1,178 @@
 package com.mechanicOnDemand.repository;
 
+import com.mechanicOnDemand.dto.BookingLatencySample;
+import com.mechanicOnDemand.dto.BookingListItem;
+import com.mechanicOnDemand.dto.BookingSummary;
 import com.mechanicOnDemand.model.Booking;
 import com.mechanicOnDemand.model.BookingStatus;
 import com.mechanicOnDemand.model.Mechanic;
 import com.mechanicOnDemand.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    // Connector/J only streams rows one at a time for this fetch size; anything else buffers the whole result
+    String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    // customer, mechanic and mechanic.user are eager, so list queries fetch them in the same statement
+    // instead of letting Hibernate issue follow-up selects per row
+    String SUMMARY_SELECT = "SELECT new com.mechanicOnDemand.dto.BookingSummary(b.id, b.status, b.problemDescription, " +
+            "b.vehicleType, b.vehicleModel, b.serviceLocation, b.preferredDateTime, b.estimatedCost, b.finalCost, " +
+            "b.mechanicNotes, b.createdAt, b.acceptedAt, b.completedAt, c.id, c.fullName, c.phoneNumber, " +
+            "m.id, mu.fullName, mu.phoneNumber) FROM Booking b JOIN b.customer c LEFT JOIN b.mechanic m LEFT JOIN m.user mu ";
+
+    @Override
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
+    List<Booking> findAll();
+
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findWithPartiesById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
+    List<Booking> findWithPartiesByIdIn(Collection<Long> ids);
+
+    // Applies a status change only if nobody else changed the booking since it was read
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :target, b.version = b.version + 1, b.updatedAt = :now, " +
+           "b.mechanicNotes = COALESCE(:notes, b.mechanicNotes), " +
+           "b.acceptedAt = COALESCE(:acceptedAt, b.acceptedAt), b.completedAt = COALESCE(:completedAt, b.completedAt) " +
+           "WHERE b.id = :id AND b.version = :version AND b.status IN :sources")
+    int transition(@Param("id") Long id, @Param("version") Long version, @Param("sources") Collection<BookingStatus> sources,
+                   @Param("target") BookingStatus target, @Param("notes") String notes, @Param("now") LocalDateTime now,
+                   @Param("acceptedAt") LocalDateTime acceptedAt, @Param("completedAt") LocalDateTime completedAt);
+
+    // Succeeds for exactly one mechanic, however many race to take the same open booking, and only for one it was offered to
+    @Modifying(clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "bookings"))
+    @Query(value = "UPDATE bookings SET mechanic_id = :mechanicId, status = :accepted, version = version + 1, " +
+                   "updated_at = :now, accepted_at = :now, mechanic_notes = COALESCE(:notes, mechanic_notes) " +
+                   "WHERE id = :id AND mechanic_id IS NULL AND status = :pending AND EXISTS " +
+                   "(SELECT 1 FROM booking_offers o WHERE o.booking_id = :id AND o.mechanic_id = :mechanicId)", nativeQuery = true)
+    int claimOpenBooking(@Param("id") Long id, @Param("mechanicId") Long mechanicId, @Param("pending") String pending,
+                         @Param("accepted") String accepted, @Param("notes") String notes, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.mechanic WHERE b.status IN :statuses")
+    List<Booking> findScheduledBookings(@Param("statuses") Collection<BookingStatus> statuses);
+
+    // Oldest bookings past the cutoff, locked so a concurrent accept waits; rows already locked elsewhere are skipped
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT b FROM Booking b WHERE b.status = :status AND b.createdAt < :cutoff ORDER BY b.createdAt, b.id")
+    List<Booking> findStaleForUpdate(@Param("status") BookingStatus status, @Param("cutoff") LocalDateTime cutoff,
+                                     Pageable pageable);
+
+    // Next chunk of finished bookings to archive; SKIP LOCKED keeps concurrent archivers off each other's rows
+    @Query(value = "SELECT id FROM bookings WHERE status IN (:statuses) AND created_at < :cutoff " +
+                   "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> findArchivableIdsForUpdate(@Param("statuses") Collection<String> statuses,
+                                          @Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"customer"})
+    @Query("SELECT b FROM Booking b WHERE b.mechanic IS NULL AND b.status = :status")
+    List<Booking> findOpenBookings(@Param("status") BookingStatus status);
+
+    boolean existsByIdAndMechanicIsNullAndStatus(Long id, BookingStatus status);
+
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
     List<Booking> findByCustomer(User customer);
+
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
     List<Booking> findByMechanic(Mechanic mechanic);
+
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
     List<Booking> findByStatus(BookingStatus status);
+
+    // Admin grid page; a null status matches every booking
+    @Query("SELECT b.id AS id, b.status AS status, b.problemDescription AS problemDescription, b.createdAt AS createdAt, " +
+           "c.id AS customerId, c.fullName AS customerName, m.id AS mechanicId, mu.fullName AS mechanicName " +
+           "FROM Booking b JOIN b.customer c LEFT JOIN b.mechanic m LEFT JOIN m.user mu " +
+           "WHERE (:status IS NULL OR b.status = :status)")
+    Slice<BookingListItem> findListItems(@Param("status") BookingStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
     List<Booking> findByCustomerAndStatus(User customer, BookingStatus status);
+
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
     List<Booking> findByMechanicAndStatus(Mechanic mechanic, BookingStatus status);
     
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
     @Query("SELECT b FROM Booking b WHERE b.customer.id = :customerId ORDER BY b.createdAt DESC")
     List<Booking> findByCustomerIdOrderByCreatedAtDesc(@Param("customerId") Long customerId);
     
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
     @Query("SELECT b FROM Booking b WHERE b.mechanic.id = :mechanicId ORDER BY b.createdAt DESC")
     List<Booking> findByMechanicIdOrderByCreatedAtDesc(@Param("mechanicId") Long mechanicId);
     
+    @Query(SUMMARY_SELECT + "WHERE c.id = :customerId AND (:status IS NULL OR b.status = :status) " +
+           "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findCustomerBookingsBefore(@Param("customerId") Long customerId, @Param("status") BookingStatus status,
+                                                    @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE m.id = :mechanicId AND (:status IS NULL OR b.status = :status) " +
+           "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findMechanicBookingsBefore(@Param("mechanicId") Long mechanicId, @Param("status") BookingStatus status,
+                                                    @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
     @Query("SELECT b FROM Booking b WHERE b.createdAt BETWEEN :startDate AND :endDate")
     List<Booking> findBookingsBetweenDates(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
+    // Forward-only read for exports; must be consumed inside a transaction and closed
+    @EntityGraph(attributePaths = {"customer", "mechanic", "mechanic.user"})
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b WHERE b.createdAt BETWEEN :startDate AND :endDate " +
+           "AND (:status IS NULL OR b.status = :status) ORDER BY b.createdAt, b.id")
+    Stream<Booking> streamBookingsBetweenDates(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                               @Param("status") BookingStatus status);
+    
+    @Query("SELECT MIN(b.id), MAX(b.id) FROM Booking b WHERE b.acceptedAt IS NOT NULL")
+    List<Object[]> findAcceptedIdRange();
+
+    // Keyset scan over one id range, for rebuilding latency histograms
+    @Query("SELECT new com.mechanicOnDemand.dto.BookingLatencySample(b.id, c.city, m.id, b.createdAt, b.acceptedAt, " +
+           "b.completedAt) FROM Booking b JOIN b.customer c JOIN b.mechanic m " +
+           "WHERE b.acceptedAt IS NOT NULL AND b.id > :afterId AND b.id <= :maxId ORDER BY b.id")
+    List<BookingLatencySample> findLatencySamples(@Param("afterId") Long afterId, @Param("maxId") Long maxId,
+                                                  Pageable pageable);
+
+    @Query("SELECT b.status, COUNT(b) FROM Booking b GROUP BY b.status")
+    List<Object[]> countGroupedByStatus();
+
+    // Per-mechanic booking outcomes, for completion rates in the search ranking
+    @Query("SELECT b.mechanic.id, b.status, COUNT(b) FROM Booking b WHERE b.mechanic IS NOT NULL AND b.status IN :statuses " +
+           "GROUP BY b.mechanic.id, b.status")
+    List<Object[]> countByMechanicGroupedByStatus(@Param("statuses") Collection<BookingStatus> statuses);
+    
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.status = :status")
     Long countByStatus(@Param("status") BookingStatus status);
     
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.mechanic.id = :mechanicId AND b.status = 'COMPLETED'")
     Long countCompletedBookingsByMechanic(@Param("mechanicId") Long mechanicId);
-}
\ No newline at end of file
+}
@@ -1,31 +1,107 @@
 package com.mechanicOnDemand.repository;
 
+import com.mechanicOnDemand.config.SecondLevelCacheConfig;
+import com.mechanicOnDemand.dto.MechanicListItem;
 import com.mechanicOnDemand.model.Mechanic;
 import com.mechanicOnDemand.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MechanicRepository extends JpaRepository<Mechanic, Long> {
+    // Per-mechanic review count and rating sum, limited to the :ids being reconciled
+    String REVIEW_TOTALS = "SELECT mechanic_id, COUNT(*) AS cnt, SUM(rating) AS total FROM reviews " +
+                           "WHERE mechanic_id IN (:ids) GROUP BY mechanic_id";
+
+    // Finder results go to the query cache when it is enabled; any write to mechanics invalidates them
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.MECHANIC_QUERIES_REGION)})
     Optional<Mechanic> findByUser(User user);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.MECHANIC_QUERIES_REGION)})
     Optional<Mechanic> findByUserId(Long userId);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.MECHANIC_QUERIES_REGION)})
     List<Mechanic> findByIsAvailable(Boolean isAvailable);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.MECHANIC_QUERIES_REGION)})
     List<Mechanic> findByIsVerified(Boolean isVerified);
+
+    // Admin grid page; null filters match everything
+    @Query("SELECT m.id AS id, u.id AS userId, u.fullName AS fullName, u.city AS city, m.skills AS skills, " +
+           "m.yearsOfExperience AS yearsOfExperience, m.hourlyRate AS hourlyRate, m.rating AS rating, " +
+           "m.totalReviews AS totalReviews, m.isVerified AS isVerified, m.isAvailable AS isAvailable, " +
+           "m.createdAt AS createdAt FROM Mechanic m JOIN m.user u " +
+           "WHERE (:verified IS NULL OR m.isVerified = :verified) AND (:available IS NULL OR m.isAvailable = :available)")
+    Slice<MechanicListItem> findListItems(@Param("verified") Boolean verified, @Param("available") Boolean available,
+                                          Pageable pageable);
+    
+    @Query("SELECT m.isVerified, m.isAvailable, COUNT(m) FROM Mechanic m GROUP BY m.isVerified, m.isAvailable")
+    List<Object[]> countByVerifiedAndAvailable();
     
+    @Query("SELECT m FROM Mechanic m JOIN FETCH m.user WHERE m.isAvailable = true AND m.isVerified = true")
+    List<Mechanic> findAvailableVerifiedMechanics();
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.MECHANIC_QUERIES_REGION)})
     @Query("SELECT m FROM Mechanic m WHERE m.user.city = :city AND m.isAvailable = true AND m.isVerified = true")
     List<Mechanic> findAvailableMechanicsByCity(@Param("city") String city);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.MECHANIC_QUERIES_REGION)})
     @Query("SELECT m FROM Mechanic m WHERE m.user.pincode = :pincode AND m.isAvailable = true AND m.isVerified = true")
     List<Mechanic> findAvailableMechanicsByPincode(@Param("pincode") String pincode);
     
-    @Query("SELECT m FROM Mechanic m WHERE m.skills LIKE %:skill% AND m.isAvailable = true AND m.isVerified = true")
-    List<Mechanic> findBySkillsContaining(@Param("skill") String skill);
+    @Query("SELECT DISTINCT m FROM Mechanic m JOIN FETCH m.user LEFT JOIN FETCH m.skillTokens")
+    List<Mechanic> findAllWithUserAndSkillTokens();
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.MECHANIC_QUERIES_REGION)})
+    @Query("SELECT m FROM Mechanic m JOIN FETCH m.user WHERE m.id IN :ids AND m.isAvailable = true AND m.isVerified = true ORDER BY m.id")
+    List<Mechanic> findAvailableMechanicsByIdIn(@Param("ids") Collection<Long> ids);
     
-    @Query("SELECT m FROM Mechanic m WHERE (m.user.city = :city OR m.user.pincode = :pincode) AND m.skills LIKE %:skill% AND m.isAvailable = true AND m.isVerified = true")
-    List<Mechanic> findMechanicsByCityOrPincodeAndSkill(@Param("city") String city, @Param("pincode") String pincode, @Param("skill") String skill);
-}
\ No newline at end of file
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.MECHANIC_QUERIES_REGION)})
+    @Query("SELECT m FROM Mechanic m JOIN FETCH m.user u WHERE m.id IN :ids AND (u.city = :city OR u.pincode = :pincode) AND m.isAvailable = true AND m.isVerified = true ORDER BY m.id")
+    List<Mechanic> findAvailableMechanicsByIdInAndCityOrPincode(@Param("ids") Collection<Long> ids, @Param("city") String city, @Param("pincode") String pincode);
+
+    // Rating is assigned first because MySQL lets later assignments see earlier ones
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Mechanic m SET m.rating = (COALESCE(m.ratingSum, 0) + :rating) / (COALESCE(m.totalReviews, 0) + 1), " +
+           "m.ratingSum = COALESCE(m.ratingSum, 0) + :rating, m.totalReviews = COALESCE(m.totalReviews, 0) + 1 " +
+           "WHERE m.id = :id")
+    int addRating(@Param("id") Long id, @Param("rating") BigDecimal rating);
+
+    @Query("SELECT m.id FROM Mechanic m WHERE m.id > :afterId ORDER BY m.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(value = "SELECT m.id FROM mechanics m LEFT JOIN (" + REVIEW_TOTALS + ") r ON r.mechanic_id = m.id " +
+                   "WHERE m.id IN (:ids) AND (m.total_reviews IS NULL OR m.total_reviews <> COALESCE(r.cnt, 0) " +
+                   "OR m.rating_sum IS NULL OR m.rating_sum <> COALESCE(r.total, 0))", nativeQuery = true)
+    List<Long> findIdsWithRatingDrift(@Param("ids") Collection<Long> ids);
+
+    // Recomputes rating, rating_sum and total_reviews from the reviews table
+    @Modifying(clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "mechanics"))
+    @Query(value = "UPDATE mechanics m LEFT JOIN (" + REVIEW_TOTALS + ") r ON r.mechanic_id = m.id " +
+                   "SET m.rating = COALESCE(r.total / r.cnt, 0), m.rating_sum = COALESCE(r.total, 0), " +
+                   "m.total_reviews = COALESCE(r.cnt, 0) WHERE m.id IN (:ids)", nativeQuery = true)
+    int recomputeRatings(@Param("ids") Collection<Long> ids);
+}
@@ -3,12 +3,16 @@ package com.mechanicOnDemand.repository;
 import com.mechanicOnDemand.model.Notification;
 import com.mechanicOnDemand.model.NotificationType;
 import com.mechanicOnDemand.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -16,9 +20,25 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByUserAndIsRead(User user, Boolean isRead);
     List<Notification> findByType(NotificationType type);
     
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC")
     List<Notification> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
     
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = false ORDER BY n.createdAt DESC")
+    List<Notification> findUnreadByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
+    
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
     Long countUnreadNotificationsByUser(@Param("userId") Long userId);
+    
+    @Query("SELECT n.user.id FROM Notification n WHERE n.id = :id AND n.isRead = false")
+    Optional<Long> findOwnerIdIfUnread(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.id = :id AND n.isRead = false")
+    int markAsReadIfUnread(@Param("id") Long id, @Param("readAt") LocalDateTime readAt);
+    
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsReadByUser(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.mechanicOnDemand.repository;
+
+import com.mechanicOnDemand.model.OutboxEvent;
+import com.mechanicOnDemand.model.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // Skips a recipient's events while an older one of theirs is waiting out a retry backoff, preserving per-user order
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = :pending AND e.nextAttemptAt <= :now " +
+           "AND NOT EXISTS (SELECT 1 FROM OutboxEvent p WHERE p.recipientId = e.recipientId AND p.status = :pending " +
+           "AND p.id < e.id AND p.nextAttemptAt > :now) ORDER BY e.id")
+    List<OutboxEvent> findDue(@Param("pending") OutboxStatus pending, @Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :sent, e.processedAt = :now, e.attempts = e.attempts + 1 " +
+           "WHERE e.id = :id AND e.status = :pending")
+    int claim(@Param("id") Long id, @Param("pending") OutboxStatus pending, @Param("sent") OutboxStatus sent,
+              @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :sent AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("sent") OutboxStatus sent, @Param("before") LocalDateTime before);
+}
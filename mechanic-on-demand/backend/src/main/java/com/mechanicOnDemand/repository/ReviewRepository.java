@@ -3,18 +3,24 @@ package com.mechanicOnDemand.repository;
 import com.mechanicOnDemand.model.Mechanic;
 import com.mechanicOnDemand.model.Review;
 import com.mechanicOnDemand.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByCustomer(User customer);
     List<Review> findByMechanic(Mechanic mechanic);
+    boolean existsByBookingId(Long bookingId);
     
     @Query("SELECT r FROM Review r WHERE r.mechanic.id = :mechanicId ORDER BY r.createdAt DESC")
     List<Review> findByMechanicIdOrderByCreatedAtDesc(@Param("mechanicId") Long mechanicId);
@@ -24,4 +30,17 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     
     @Query("SELECT COUNT(r) FROM Review r WHERE r.mechanic.id = :mechanicId")
     Long countReviewsByMechanic(@Param("mechanicId") Long mechanicId);
+
+    // Per mechanic: sum of ratings and sum of weights, each review weighted by exp(-decay * age in seconds)
+    @Query(value = "SELECT mechanic_id, SUM(rating * EXP(-:decay * TIMESTAMPDIFF(SECOND, created_at, NOW()))), " +
+                   "SUM(EXP(-:decay * TIMESTAMPDIFF(SECOND, created_at, NOW()))) FROM reviews " +
+                   "WHERE mechanic_id IS NOT NULL GROUP BY mechanic_id", nativeQuery = true)
+    List<Object[]> sumDecayedRatingsByMechanic(@Param("decay") double decayPerSecond);
+
+    // Moves the link to archived_booking_id so the bookings rows can be deleted without breaking the foreign key
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reviews"))
+    @Query(value = "UPDATE reviews SET archived_booking_id = booking_id, booking_id = NULL WHERE booking_id IN (:ids)",
+           nativeQuery = true)
+    int detachArchivedBookings(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.mechanicOnDemand.repository;
+
+import com.mechanicOnDemand.model.SchedulerLease;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduler_leases"))
+    @Query(value = "INSERT IGNORE INTO scheduler_leases (name, owner, lease_until) VALUES (:name, :owner, :until)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+
+    // Takes over an expired lease or extends our own; anyone else's live lease is left alone
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.owner = :owner, l.leaseUntil = :until " +
+           "WHERE l.name = :name AND (l.leaseUntil < :now OR l.owner = :owner)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now,
+                   @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("DELETE FROM SchedulerLease l WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+
+    @Modifying
+    @Query("DELETE FROM SchedulerLease l WHERE l.name LIKE CONCAT(:prefix, '%') AND l.leaseUntil < :before")
+    int deleteExpired(@Param("prefix") String prefix, @Param("before") LocalDateTime before);
+}
@@ -1,14 +1,22 @@
 package com.mechanicOnDemand.repository;
 
+import com.mechanicOnDemand.dto.UserListItem;
 import com.mechanicOnDemand.model.Role;
 import com.mechanicOnDemand.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -18,10 +26,44 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByEmail(String email);
     List<User> findByRole(Role role);
     List<User> findByIsActive(Boolean isActive);
+
+    // Admin grid page; null filters match everything
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.fullName AS fullName, " +
+           "u.phoneNumber AS phoneNumber, u.city AS city, u.pincode AS pincode, u.role AS role, " +
+           "u.isActive AS isActive, u.createdAt AS createdAt FROM User u " +
+           "WHERE (:role IS NULL OR u.role = :role) AND (:active IS NULL OR u.isActive = :active) " +
+           "AND (:city IS NULL OR u.city = :city)")
+    Slice<UserListItem> findListItems(@Param("role") Role role, @Param("active") Boolean active,
+                                      @Param("city") String city, Pageable pageable);
+    
+    // Forward-only read for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BookingRepository.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u WHERE (:role IS NULL OR u.role = :role) ORDER BY u.id")
+    Stream<User> streamByRole(@Param("role") Role role);
+    
+    @Query("SELECT u.role, u.isActive, COUNT(u) FROM User u GROUP BY u.role, u.isActive")
+    List<Object[]> countByRoleAndActive();
+    
+    @Query("SELECT u.id FROM User u WHERE u.isActive = false")
+    List<Long> findInactiveUserIds();
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
     
     @Query("SELECT u FROM User u WHERE u.city = :city AND u.role = :role AND u.isActive = true")
     List<User> findActiveUsersByCityAndRole(@Param("city") String city, @Param("role") Role role);
     
     @Query("SELECT u FROM User u WHERE u.pincode = :pincode AND u.role = :role AND u.isActive = true")
     List<User> findActiveUsersByPincodeAndRole(@Param("pincode") String pincode, @Param("role") Role role);
+    
+    // Keyset chunk of active user ids in a segment; null filters match everyone
+    @Query("SELECT u.id FROM User u WHERE u.isActive = true AND u.id > :afterId " +
+           "AND (:role IS NULL OR u.role = :role) AND (:city IS NULL OR u.city = :city) " +
+           "AND (:pincode IS NULL OR u.pincode = :pincode) ORDER BY u.id")
+    List<Long> findActiveUserIdsInSegment(@Param("role") Role role, @Param("city") String city,
+                                          @Param("pincode") String pincode, @Param("afterId") Long afterId,
+                                          Pageable pageable);
 }
\ No newline at end of file
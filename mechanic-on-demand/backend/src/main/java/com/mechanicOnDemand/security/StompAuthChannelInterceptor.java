@@ -0,0 +1,54 @@
+package com.mechanicOnDemand.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.Principal;
+
+/**
+ * Authenticates STOMP sessions from the Authorization header sent with CONNECT and keeps
+ * non-admins off the /topic/admin destinations. Other destinations stay open as before.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+    public static final String ADMIN_TOPIC_PREFIX = "/topic/admin";
+
+    @Autowired
+    private TokenAuthenticator tokenAuthenticator;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String header = accessor.getFirstNativeHeader("Authorization");
+            if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
+                Authentication authentication = tokenAuthenticator.authenticate(header.substring(7));
+                if (authentication != null) {
+                    accessor.setUser(authentication);
+                }
+            }
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())
+                && accessor.getDestination() != null && accessor.getDestination().startsWith(ADMIN_TOPIC_PREFIX)
+                && !isAdmin(accessor.getUser())) {
+            throw new AccessDeniedException("Admin access required for " + accessor.getDestination());
+        }
+        return message;
+    }
+
+    private static boolean isAdmin(Principal user) {
+        return user instanceof Authentication authentication && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
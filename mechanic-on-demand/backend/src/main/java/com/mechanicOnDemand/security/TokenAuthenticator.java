@@ -0,0 +1,60 @@
+package com.mechanicOnDemand.security;
+
+import com.mechanicOnDemand.model.Role;
+import com.mechanicOnDemand.model.User;
+import com.mechanicOnDemand.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+// Turns a bearer token into an authenticated principal; shared by the HTTP filter and the STOMP CONNECT handler
+@Component
+public class TokenAuthenticator {
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Value("${app.auth.claims-principal}")
+    private boolean claimsPrincipal;
+
+    // Null when the token is invalid or its user is inactive or revoked
+    public UsernamePasswordAuthenticationToken authenticate(String jwt) {
+        UserDetails userDetails = tokenCache.get(jwt);
+        if (userDetails == null) {
+            Claims claims = jwtUtils.parseVerifiedClaims(jwt);
+            if (claims != null) {
+                userDetails = resolvePrincipal(claims);
+                tokenCache.put(jwt, userDetails, claims.getExpiration());
+            }
+        }
+
+        if (userDetails != null && userDetails.isEnabled() && !tokenCache.isRevoked(userDetails)) {
+            return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        }
+        return null;
+    }
+
+    private UserDetails resolvePrincipal(Claims claims) {
+        Number userId = claims.get(JwtUtils.CLAIM_USER_ID, Number.class);
+        String role = claims.get(JwtUtils.CLAIM_ROLE, String.class);
+
+        // Tokens issued before the id/role claims existed still go through the database
+        if (!claimsPrincipal || userId == null || role == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        User user = new User();
+        user.setId(userId.longValue());
+        user.setUsername(claims.getSubject());
+        user.setRole(Role.valueOf(role));
+        return user;
+    }
+}
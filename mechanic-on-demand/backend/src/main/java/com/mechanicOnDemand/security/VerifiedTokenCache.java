@@ -0,0 +1,154 @@
+package com.mechanicOnDemand.security;
+
+import com.mechanicOnDemand.model.User;
+import com.mechanicOnDemand.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of verified JWTs keyed by token digest. Entries never outlive the TTL or the token itself,
+ * which bounds how long a deactivated user stays authenticated.
+ */
+@Component
+public class VerifiedTokenCache {
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+    private static final int EXISTENCE_CHECK_CHUNK = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.auth.token-cache.max-size}")
+    private int maxSize;
+
+    @Value("${app.auth.token-cache.ttl-ms}")
+    private long ttlMs;
+
+    private final Map<String, CachedPrincipal> entries = new ConcurrentHashMap<>();
+
+    // Users deactivated on this node, or seen as inactive by the last refresh
+    private final Set<Long> inactiveUserIds = ConcurrentHashMap.newKeySet();
+
+    // Users whose row is gone, deleted here or found missing by a refresh; ids are never reused, so this is never pruned
+    private final Set<Long> deletedUserIds = ConcurrentHashMap.newKeySet();
+
+    public UserDetails get(String token) {
+        String key = digest(token);
+        CachedPrincipal cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, cached);
+            return null;
+        }
+        return cached.principal();
+    }
+
+    public void put(String token, UserDetails principal, Date tokenExpiration) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMs;
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+        if (entries.size() >= maxSize) {
+            evictOverflow(now);
+        }
+        entries.put(digest(token), new CachedPrincipal(principal, expiresAt));
+    }
+
+    public boolean isRevoked(UserDetails principal) {
+        return principal instanceof User user
+                && (inactiveUserIds.contains(user.getId()) || deletedUserIds.contains(user.getId()));
+    }
+
+    public void revokeUser(Long userId) {
+        inactiveUserIds.add(userId);
+        evictUser(userId);
+    }
+
+    public void userDeleted(Long userId) {
+        deletedUserIds.add(userId);
+        evictUser(userId);
+    }
+
+    public void restoreUser(Long userId) {
+        inactiveUserIds.remove(userId);
+    }
+
+    /**
+     * Picks up users deactivated or deleted on other nodes. Principals built from token claims are never
+     * loaded from the database, so the users behind cached tokens are also checked for a missing row.
+     */
+    @Scheduled(fixedDelayString = "${app.auth.inactive-refresh-ms}")
+    public void refreshInactiveUsers() {
+        try {
+            Set<Long> inactive = new HashSet<>(userRepository.findInactiveUserIds());
+            inactiveUserIds.retainAll(inactive);
+            inactiveUserIds.addAll(inactive);
+            findDeletedUsers();
+            entries.values().removeIf(cached -> isRevoked(cached.principal()));
+        } catch (Exception e) {
+            logger.warn("Could not refresh inactive users: {}", e.getMessage());
+        }
+    }
+
+    private void findDeletedUsers() {
+        Set<Long> cachedUserIds = new HashSet<>();
+        for (CachedPrincipal cached : entries.values()) {
+            if (cached.principal() instanceof User user && user.getId() != null && !deletedUserIds.contains(user.getId())) {
+                cachedUserIds.add(user.getId());
+            }
+        }
+        List<Long> ids = new ArrayList<>(cachedUserIds);
+        for (int from = 0; from < ids.size(); from += EXISTENCE_CHECK_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + EXISTENCE_CHECK_CHUNK, ids.size()));
+            Set<Long> missing = new HashSet<>(chunk);
+            userRepository.findExistingIds(chunk).forEach(missing::remove);
+            deletedUserIds.addAll(missing);
+        }
+    }
+
+    private void evictUser(Long userId) {
+        entries.values().removeIf(cached -> cached.principal() instanceof User user && userId.equals(user.getId()));
+    }
+
+    private void evictOverflow(long now) {
+        entries.values().removeIf(cached -> cached.expiresAt() <= now);
+        // Still full of live tokens: drop an arbitrary tenth rather than tracking recency on the hot path
+        int toRemove = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        for (String key : entries.keySet()) {
+            if (toRemove-- <= 0) {
+                break;
+            }
+            entries.remove(key);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedPrincipal(UserDetails principal, long expiresAt) {}
+}
@@ -35,6 +35,12 @@ public class AuthService {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    PincodeDirectory pincodeDirectory;
+
+    @Autowired
+    DashboardCounterRegistry dashboardCounters;
+
     public ResponseEntity<?> authenticateUser(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
@@ -77,8 +83,18 @@ public class AuthService {
         user.setAddress(signUpRequest.getAddress());
         user.setCity(signUpRequest.getCity());
         user.setPincode(signUpRequest.getPincode());
+        if (signUpRequest.getLatitude() != null && signUpRequest.getLongitude() != null) {
+            user.setLatitude(signUpRequest.getLatitude());
+            user.setLongitude(signUpRequest.getLongitude());
+        } else {
+            pincodeDirectory.centroidOf(signUpRequest.getPincode()).ifPresent(centroid -> {
+                user.setLatitude(centroid[0]);
+                user.setLongitude(centroid[1]);
+            });
+        }
 
         userRepository.save(user);
+        dashboardCounters.userRegistered(user.getRole(), Boolean.TRUE.equals(user.getIsActive()));
 
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
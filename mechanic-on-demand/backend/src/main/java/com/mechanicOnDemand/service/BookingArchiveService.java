@@ -0,0 +1,44 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.repository.ArchivedBookingRepository;
+import com.mechanicOnDemand.repository.BookingRepository;
+import com.mechanicOnDemand.repository.ReviewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Moves finished bookings from the live table into bookings_archive
+@Service
+public class BookingArchiveService {
+    static final List<String> ARCHIVABLE = List.of(
+            BookingStatus.COMPLETED.name(), BookingStatus.CANCELLED.name(), BookingStatus.REJECTED.name());
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    /**
+     * Archives one chunk of finished bookings created before the cutoff. Copy and delete commit together,
+     * so a run that stops part way leaves every booking in exactly one table and the next run carries on.
+     */
+    @Transactional
+    public int archiveChunk(LocalDateTime cutoff, int chunkSize) {
+        List<Long> ids = bookingRepository.findArchivableIdsForUpdate(ARCHIVABLE, cutoff, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedBookingRepository.copyFromBookings(ids, LocalDateTime.now());
+        reviewRepository.detachArchivedBookings(ids);
+        bookingRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+}
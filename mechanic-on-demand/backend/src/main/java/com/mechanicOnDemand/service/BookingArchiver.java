@@ -0,0 +1,58 @@
+package com.mechanicOnDemand.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Keeps the live bookings table small by archiving finished bookings in chunks; only the lease holder runs it
+@Component
+public class BookingArchiver {
+    private static final Logger logger = LoggerFactory.getLogger(BookingArchiver.class);
+
+    static final String LEASE_NAME = "booking-archiver";
+
+    @Autowired
+    private BookingArchiveService bookingArchiveService;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Value("${app.bookings.archive.after-days}")
+    private long afterDays;
+
+    @Value("${app.bookings.archive.chunk-size}")
+    private int chunkSize;
+
+    @Value("${app.bookings.archive.max-chunks-per-run}")
+    private int maxChunksPerRun;
+
+    @Value("${app.bookings.archive.lease-ms}")
+    private long leaseMs;
+
+    @Scheduled(fixedDelayString = "${app.bookings.archive.run-ms}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        Duration lease = Duration.ofMillis(leaseMs);
+        int archived = 0;
+        try {
+            for (int chunk = 0; chunk < maxChunksPerRun && schedulerLeaseService.tryAcquire(LEASE_NAME, lease); chunk++) {
+                int count = bookingArchiveService.archiveChunk(cutoff, chunkSize);
+                archived += count;
+                if (count < chunkSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Booking archival failed: {}", e.getMessage());
+        }
+        if (archived > 0) {
+            logger.info("Archived {} finished bookings created before {}", archived, cutoff);
+        }
+    }
+}
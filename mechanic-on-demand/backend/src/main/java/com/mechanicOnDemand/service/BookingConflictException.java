@@ -0,0 +1,8 @@
+package com.mechanicOnDemand.service;
+
+// Thrown when a booking is not in a state that allows the requested change, or changed underneath the caller
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
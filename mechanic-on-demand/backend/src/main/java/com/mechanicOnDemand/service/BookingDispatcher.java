@@ -0,0 +1,376 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.dto.NearbyMechanicResponse;
+import com.mechanicOnDemand.model.Booking;
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.model.User;
+import com.mechanicOnDemand.repository.BookingRepository;
+import com.mechanicOnDemand.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Offers open bookings to nearby mechanics in widening waves until one of them accepts. Offers are
+ * stored before they are pushed, and the conditional update in {@link BookingService} only lets an
+ * offered mechanic claim the booking. On the dispatching node the first accept also wins an in-memory
+ * compare-and-set, so the losers are turned away without a write. Each open booking is dispatched by
+ * the one node holding its lease, renewed before every wave.
+ */
+@Component
+public class BookingDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(BookingDispatcher.class);
+    private static final long UNCLAIMED = 0L;
+    private static final long CLOSED = -1L;
+
+    static final String LEASE_PREFIX = "booking-dispatch:";
+
+    @Autowired
+    private MechanicGeoIndex geoIndex;
+
+    @Autowired
+    private MechanicSkillIndex skillIndex;
+
+    @Autowired
+    private MechanicScheduleIndex scheduleIndex;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Autowired
+    @Lazy
+    private BookingService bookingService;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Autowired
+    private BookingOfferService bookingOfferService;
+
+    @Value("${app.dispatch.wave-size}")
+    private int waveSize;
+
+    @Value("${app.dispatch.max-waves}")
+    private int maxWaves;
+
+    @Value("${app.dispatch.wave-interval-ms}")
+    private long waveIntervalMs;
+
+    @Value("${app.dispatch.initial-radius-km}")
+    private double initialRadiusKm;
+
+    @Value("${app.dispatch.offer-timeout-ms}")
+    private long offerTimeoutMs;
+
+    @Value("${app.dispatch.lease-ms}")
+    private long leaseMs;
+
+    @Value("${app.geo.max-radius-km}")
+    private double maxRadiusKm;
+
+    @Value("${app.geo.max-results}")
+    private int maxResults;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer timeToAccept;
+
+    private final Map<Long, Dispatch> dispatches = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "booking-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        timeToAccept = Timer.builder("bookings.dispatch.time.to.accept")
+                .description("Time from an open booking being created to a mechanic accepting it")
+                .register(meterRegistry);
+    }
+
+    // Published in the booking's transaction; offers only go out once it has committed
+    public record OpenBookingCreated(Long bookingId, double latitude, double longitude, String requiredSkills,
+                                     LocalDateTime preferredStart, Duration duration, LocalDateTime createdAt) {}
+
+    // Published when an open booking is claimed, cancelled or expired; winner is null unless claimed
+    public record OpenBookingClosed(Long bookingId, Long winnerMechanicId) {}
+
+    private static final class Dispatch {
+        final Long bookingId;
+        final double latitude;
+        final double longitude;
+        final long[] skilledMechanics;
+        final LocalDateTime preferredStart;
+        final Duration duration;
+        final LocalDateTime createdAt;
+        final AtomicLong claimedBy = new AtomicLong(UNCLAIMED);
+        final Map<Long, String> offered = new ConcurrentHashMap<>();
+        int wave;
+        volatile ScheduledFuture<?> next;
+
+        Dispatch(Long bookingId, double latitude, double longitude, long[] skilledMechanics, LocalDateTime preferredStart,
+                 Duration duration, LocalDateTime createdAt) {
+            this.bookingId = bookingId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.skilledMechanics = skilledMechanics;
+            this.preferredStart = preferredStart;
+            this.duration = duration;
+            this.createdAt = createdAt;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCreated(OpenBookingCreated event) {
+        start(event.bookingId(), event.latitude(), event.longitude(), event.requiredSkills(), event.preferredStart(),
+                event.duration(), event.createdAt());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onClosed(OpenBookingClosed event) {
+        finish(event.bookingId(), event.winnerMechanicId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onCloseRolledBack(OpenBookingClosed event) {
+        release(event.bookingId(), event.winnerMechanicId());
+    }
+
+    /**
+     * Waves are scheduled in memory, so open bookings left over from before a restart, or from a node that
+     * stopped renewing their leases, start again from the first wave; mechanics offered the booking before
+     * keep their offer and are not offered it twice. Bookings another live node is dispatching keep their
+     * lease and are skipped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.dispatch.lease-ms}", fixedDelayString = "${app.dispatch.lease-ms}")
+    public void resume() {
+        schedulerLeaseService.purgeExpired(LEASE_PREFIX, LocalDateTime.now().minus(Duration.ofMillis(leaseMs)));
+        bookingOfferService.purgeClosed();
+        for (Booking booking : bookingRepository.findOpenBookings(BookingStatus.PENDING)) {
+            if (!dispatches.containsKey(booking.getId())
+                    && booking.getServiceLatitude() != null && booking.getServiceLongitude() != null) {
+                start(booking.getId(), booking.getServiceLatitude(), booking.getServiceLongitude(), booking.getRequiredSkills(),
+                        booking.getPreferredDateTime(), scheduleIndex.durationOf(booking), booking.getCreatedAt());
+            }
+        }
+    }
+
+    public boolean isOffered(Long bookingId, Long mechanicId) {
+        Dispatch dispatch = dispatches.get(bookingId);
+        if (dispatch == null) {
+            return bookingOfferService.isOffered(bookingId, mechanicId);
+        }
+        return dispatch.offered.containsKey(mechanicId);
+    }
+
+    /**
+     * Lets exactly one offered mechanic through per booking. Bookings dispatched by another node, or
+     * before a restart, are checked against the stored offers; the claim update checks them again.
+     */
+    public boolean tryClaim(Long bookingId, Long mechanicId) {
+        Dispatch dispatch = dispatches.get(bookingId);
+        if (dispatch == null) {
+            return bookingOfferService.isOffered(bookingId, mechanicId);
+        }
+        return dispatch.offered.containsKey(mechanicId) && dispatch.claimedBy.compareAndSet(UNCLAIMED, mechanicId);
+    }
+
+    private void release(Long bookingId, Long mechanicId) {
+        Dispatch dispatch = dispatches.get(bookingId);
+        if (dispatch != null && mechanicId != null) {
+            dispatch.claimedBy.compareAndSet(mechanicId, UNCLAIMED);
+        }
+    }
+
+    // Runs on the dispatch thread, which is the only one adding dispatches
+    private void start(Long bookingId, double latitude, double longitude, String requiredSkills, LocalDateTime preferredStart,
+                       Duration duration, LocalDateTime createdAt) {
+        scheduler.execute(() -> {
+            try {
+                if (dispatches.containsKey(bookingId) || !renewLease(bookingId)) {
+                    return;
+                }
+                long[] skilled = null;
+                if (requiredSkills != null && !requiredSkills.isBlank()) {
+                    skilled = skillIndex.search(Arrays.asList(requiredSkills.split(",")), true);
+                }
+                Dispatch dispatch = new Dispatch(bookingId, latitude, longitude, skilled, preferredStart, duration, createdAt);
+                dispatch.offered.putAll(bookingOfferService.offeredMechanics(bookingId));
+                dispatches.put(bookingId, dispatch);
+                runWave(dispatch);
+            } catch (Exception e) {
+                logger.warn("Could not start dispatch for booking {}: {}", bookingId, e.getMessage());
+            }
+        });
+    }
+
+    private boolean renewLease(Long bookingId) {
+        return schedulerLeaseService.tryAcquire(LEASE_PREFIX + bookingId, Duration.ofMillis(leaseMs));
+    }
+
+    // False once another node has taken the booking over or it was closed through another node
+    private boolean stillDispatching(Dispatch dispatch) {
+        if (!renewLease(dispatch.bookingId)) {
+            dispatches.remove(dispatch.bookingId, dispatch);
+            return false;
+        }
+        if (!bookingRepository.existsByIdAndMechanicIsNullAndStatus(dispatch.bookingId, BookingStatus.PENDING)) {
+            finish(dispatch.bookingId, null);
+            return false;
+        }
+        return true;
+    }
+
+    private void runWave(Dispatch dispatch) {
+        if (dispatch.claimedBy.get() != UNCLAIMED || dispatches.get(dispatch.bookingId) != dispatch) {
+            return;
+        }
+        try {
+            if (!stillDispatching(dispatch)) {
+                return;
+            }
+            offer(dispatch, candidates(dispatch));
+        } catch (Exception e) {
+            logger.warn("Dispatch wave {} for booking {} failed: {}", dispatch.wave, dispatch.bookingId, e.getMessage());
+        }
+        dispatch.wave++;
+        dispatch.next = dispatch.wave < maxWaves
+                ? scheduler.schedule(() -> runWave(dispatch), waveIntervalMs, TimeUnit.MILLISECONDS)
+                : scheduler.schedule(() -> expire(dispatch), offerTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private List<NearbyMechanicResponse> candidates(Dispatch dispatch) {
+        double radiusKm = Math.min(initialRadiusKm * (1L << Math.min(dispatch.wave, 20)), maxRadiusKm);
+        LocalDateTime start = dispatch.preferredStart != null ? dispatch.preferredStart : LocalDateTime.now();
+        List<NearbyMechanicResponse> picks = new ArrayList<>(waveSize);
+        for (NearbyMechanicResponse mechanic : geoIndex.nearest(dispatch.latitude, dispatch.longitude, radiusKm, maxResults)) {
+            if (dispatch.offered.containsKey(mechanic.getMechanicId())) {
+                continue;
+            }
+            if (dispatch.skilledMechanics != null && Arrays.binarySearch(dispatch.skilledMechanics, mechanic.getMechanicId()) < 0) {
+                continue;
+            }
+            if (!scheduleIndex.isFree(mechanic.getMechanicId(), start, dispatch.duration)) {
+                continue;
+            }
+            picks.add(mechanic);
+            if (picks.size() == waveSize) {
+                break;
+            }
+        }
+        return picks;
+    }
+
+    private void offer(Dispatch dispatch, List<NearbyMechanicResponse> picks) {
+        if (picks.isEmpty()) {
+            return;
+        }
+        Map<Long, String> usernames = userRepository.findAllById(picks.stream().map(NearbyMechanicResponse::getUserId).toList())
+                .stream().collect(Collectors.toMap(User::getId, User::getUsername, (a, b) -> a));
+        List<NearbyMechanicResponse> reachable = picks.stream()
+                .filter(mechanic -> usernames.containsKey(mechanic.getUserId()))
+                .toList();
+        if (reachable.isEmpty()) {
+            return;
+        }
+        bookingOfferService.record(dispatch.bookingId, reachable.stream().map(NearbyMechanicResponse::getMechanicId).toList());
+        for (NearbyMechanicResponse mechanic : reachable) {
+            String username = usernames.get(mechanic.getUserId());
+            dispatch.offered.put(mechanic.getMechanicId(), username);
+            webSocketService.sendBookingUpdate(username, dispatch.bookingId.toString(), "OFFERED",
+                    String.format("New job %.1f km away, accept it to take it", mechanic.getDistanceKm()));
+        }
+    }
+
+    private void expire(Dispatch dispatch) {
+        if (!dispatch.claimedBy.compareAndSet(UNCLAIMED, CLOSED)) {
+            // A claim is in flight; check again later in case it rolls back
+            if (dispatches.get(dispatch.bookingId) == dispatch) {
+                dispatch.next = scheduler.schedule(() -> expire(dispatch), offerTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        try {
+            if (renewLease(dispatch.bookingId)) {
+                bookingService.expireOpenBooking(dispatch.bookingId);
+            } else {
+                // Another node has taken the booking over and will expire it itself
+                dispatches.remove(dispatch.bookingId, dispatch);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not expire booking {}: {}", dispatch.bookingId, e.getMessage());
+        } finally {
+            finish(dispatch.bookingId, null);
+        }
+    }
+
+    private void finish(Long bookingId, Long winnerMechanicId) {
+        Dispatch dispatch = dispatches.remove(bookingId);
+        if (dispatch == null) {
+            return;
+        }
+        ScheduledFuture<?> next = dispatch.next;
+        if (next != null) {
+            next.cancel(false);
+        }
+        if (winnerMechanicId != null) {
+            timeToAccept.record(Duration.between(dispatch.createdAt, LocalDateTime.now()));
+        }
+        String message = winnerMechanicId != null ? "This job has been taken by another mechanic." : "This job is no longer available.";
+        dispatch.offered.forEach((mechanicId, username) -> {
+            if (!mechanicId.equals(winnerMechanicId)) {
+                webSocketService.sendBookingUpdate(username, bookingId.toString(), "WITHDRAWN", message);
+            }
+        });
+        if (!scheduler.isShutdown()) {
+            scheduler.execute(() -> {
+                try {
+                    schedulerLeaseService.release(LEASE_PREFIX + bookingId);
+                } catch (Exception e) {
+                    logger.warn("Could not release dispatch lease for booking {}: {}", bookingId, e.getMessage());
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,135 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.dto.BookingRequest;
+import com.mechanicOnDemand.model.Booking;
+import com.mechanicOnDemand.model.IdempotencyRecord;
+import com.mechanicOnDemand.repository.BookingRepository;
+import com.mechanicOnDemand.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Makes booking creation safe to retry under an Idempotency-Key. Recent keys are answered from memory;
+ * older ones, or keys first seen by another node, from the idempotency_keys table, whose unique
+ * (customer_id, idem_key) constraint decides which of several concurrent requests creates the booking.
+ */
+@Service
+public class BookingIdempotencyService {
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Value("${app.idempotency.max-size}")
+    private int maxSize;
+
+    @Value("${app.idempotency.ttl-ms}")
+    private long ttlMs;
+
+    @Value("${app.idempotency.retention-hours}")
+    private long retentionHours;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public Booking createBooking(Long customerId, BookingRequest request, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return bookingService.createBooking(customerId, request);
+        }
+        if (idempotencyKey.length() > 100) {
+            throw new RuntimeException("Idempotency-Key must be at most 100 characters");
+        }
+
+        String requestHash = fingerprint(request);
+        Optional<Booking> original = replay(customerId, idempotencyKey, requestHash);
+        if (original.isPresent()) {
+            return original.get();
+        }
+        try {
+            Booking booking = bookingService.createBooking(customerId, request,
+                    new IdempotencyRecord(customerId, idempotencyKey, requestHash));
+            remember(customerId, idempotencyKey, requestHash, booking.getId());
+            return booking;
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first
+            return replay(customerId, idempotencyKey, requestHash).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<Booking> replay(Long customerId, String idempotencyKey, String requestHash) {
+        String cacheKey = customerId + ":" + idempotencyKey;
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(cacheKey);
+        if (entry == null || entry.expiresAt <= now) {
+            Optional<IdempotencyRecord> record = idempotencyRecordRepository.findByCustomerIdAndIdemKey(customerId, idempotencyKey)
+                    .filter(r -> r.getBookingId() != null);
+            if (record.isEmpty()) {
+                return Optional.empty();
+            }
+            entry = remember(customerId, idempotencyKey, record.get().getRequestHash(), record.get().getBookingId());
+        }
+        if (!entry.requestHash.equals(requestHash)) {
+            throw new RuntimeException("Idempotency-Key was already used for a different booking request");
+        }
+        return bookingRepository.findWithPartiesById(entry.bookingId);
+    }
+
+    private Entry remember(Long customerId, String idempotencyKey, String requestHash, Long bookingId) {
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxSize) {
+            evictOverflow(now);
+        }
+        Entry entry = new Entry(requestHash, bookingId, now + ttlMs);
+        entries.put(customerId + ":" + idempotencyKey, entry);
+        return entry;
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-ms}")
+    @Transactional
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+    }
+
+    private void evictOverflow(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        int toRemove = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        for (String key : entries.keySet()) {
+            if (toRemove-- <= 0) {
+                break;
+            }
+            entries.remove(key);
+        }
+    }
+
+    private static String fingerprint(BookingRequest request) {
+        String canonical = String.join("|", String.valueOf(request.getMechanicId()), request.getProblemDescription(),
+                String.valueOf(request.getVehicleType()), String.valueOf(request.getVehicleModel()),
+                request.getServiceLocation(), String.valueOf(request.getPreferredDateTime()),
+                String.valueOf(request.getRequiredSkills()), String.valueOf(request.getLatitude()),
+                String.valueOf(request.getLongitude()));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(String requestHash, Long bookingId, long expiresAt) {}
+}
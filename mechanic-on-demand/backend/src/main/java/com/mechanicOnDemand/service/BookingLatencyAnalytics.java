@@ -0,0 +1,254 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.dto.BookingLatencySample;
+import com.mechanicOnDemand.model.Booking;
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.repository.ArchivedBookingRepository;
+import com.mechanicOnDemand.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process latency analytics for bookings: time to accept (created to accepted) and time to complete
+ * (accepted to completed), kept as fixed-size histograms overall, per customer city, per mechanic and per
+ * hour of day the booking was created. Fed by committed transitions and rebuilt from history at startup.
+ */
+@Component
+public class BookingLatencyAnalytics {
+    private static final Logger logger = LoggerFactory.getLogger(BookingLatencyAnalytics.class);
+
+    public enum Metric { ACCEPT, COMPLETE }
+
+    public enum Dimension { OVERALL, CITY, MECHANIC, HOUR }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Value("${app.analytics.rebuild-threads}")
+    private int rebuildThreads;
+
+    @Value("${app.analytics.rebuild-chunk-size}")
+    private int rebuildChunkSize;
+
+    // The rebuild only counts what happened before this, live recording counts everything after
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final Map<Metric, Histograms> histograms = newHistograms();
+    private volatile boolean rebuilding = true;
+
+    // Groups of histograms for one metric; merging adds every group of the other into this one
+    private static class Histograms {
+        final LatencyHistogram overall = new LatencyHistogram();
+        final Map<String, LatencyHistogram> byCity = new ConcurrentHashMap<>();
+        final Map<Long, LatencyHistogram> byMechanic = new ConcurrentHashMap<>();
+        final LatencyHistogram[] byHour = new LatencyHistogram[24];
+
+        Histograms() {
+            for (int hour = 0; hour < byHour.length; hour++) {
+                byHour[hour] = new LatencyHistogram();
+            }
+        }
+
+        void record(String city, Long mechanicId, int hour, long seconds) {
+            overall.record(seconds);
+            byCity.computeIfAbsent(city, key -> new LatencyHistogram()).record(seconds);
+            byMechanic.computeIfAbsent(mechanicId, key -> new LatencyHistogram()).record(seconds);
+            byHour[hour].record(seconds);
+        }
+
+        void merge(Histograms other) {
+            overall.merge(other.overall);
+            other.byCity.forEach((city, histogram) ->
+                    byCity.computeIfAbsent(city, key -> new LatencyHistogram()).merge(histogram));
+            other.byMechanic.forEach((mechanicId, histogram) ->
+                    byMechanic.computeIfAbsent(mechanicId, key -> new LatencyHistogram()).merge(histogram));
+            for (int hour = 0; hour < byHour.length; hour++) {
+                byHour[hour].merge(other.byHour[hour]);
+            }
+        }
+    }
+
+    // Records an ACCEPTED or COMPLETED transition once the surrounding transaction commits
+    public void recordAfterCommit(Booking booking, BookingStatus status) {
+        if (booking.getMechanic() == null || (status != BookingStatus.ACCEPTED && status != BookingStatus.COMPLETED)) {
+            return;
+        }
+        BookingLatencySample sample = new BookingLatencySample(booking.getId(), booking.getCustomer().getCity(),
+                booking.getMechanic().getId(), booking.getCreatedAt(), booking.getAcceptedAt(), booking.getCompletedAt());
+        Metric metric = status == BookingStatus.ACCEPTED ? Metric.ACCEPT : Metric.COMPLETE;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(histograms, sample, metric);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(histograms, sample, metric);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the histograms from live and archived bookings. Each table's id range is split into
+     * partitions scanned in parallel into private histograms, which are merged in once all are done.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads, r -> {
+            Thread thread = new Thread(r, "latency-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<CompletableFuture<Map<Metric, Histograms>>> partitions = new ArrayList<>();
+        try {
+            partitions.addAll(scan(executor, bookingRepository.findAcceptedIdRange(), bookingRepository::findLatencySamples));
+            partitions.addAll(scan(executor, archivedBookingRepository.findAcceptedIdRange(),
+                    archivedBookingRepository::findLatencySamples));
+        } catch (Exception e) {
+            logger.warn("Latency histogram rebuild failed: {}", e.getMessage());
+        }
+        CompletableFuture.allOf(partitions.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            executor.shutdown();
+            if (error != null) {
+                logger.warn("Latency histogram rebuild failed: {}", error.getMessage());
+            } else {
+                partitions.forEach(partition -> partition.join()
+                        .forEach((metric, scanned) -> histograms.get(metric).merge(scanned)));
+                logger.info("Latency histograms rebuilt from {} partitions", partitions.size());
+            }
+            rebuilding = false;
+        });
+    }
+
+    private List<CompletableFuture<Map<Metric, Histograms>>> scan(
+            ExecutorService executor, List<Object[]> idRange,
+            TriFunction<Long, Long, Pageable, List<BookingLatencySample>> query) {
+        List<CompletableFuture<Map<Metric, Histograms>>> partitions = new ArrayList<>();
+        if (idRange.isEmpty() || idRange.get(0)[0] == null) {
+            return partitions;
+        }
+        long minId = (Long) idRange.get(0)[0];
+        long maxId = (Long) idRange.get(0)[1];
+        long span = Math.max(1, (maxId - minId + rebuildThreads) / rebuildThreads);
+        for (long from = minId - 1; from < maxId; from += span) {
+            long afterId = from;
+            long toId = Math.min(maxId, from + span);
+            partitions.add(CompletableFuture.supplyAsync(() -> scanPartition(afterId, toId, query), executor));
+        }
+        return partitions;
+    }
+
+    private Map<Metric, Histograms> scanPartition(long afterId, long toId,
+                                                  TriFunction<Long, Long, Pageable, List<BookingLatencySample>> query) {
+        Map<Metric, Histograms> scanned = newHistograms();
+        Pageable chunk = PageRequest.of(0, rebuildChunkSize);
+        List<BookingLatencySample> samples;
+        do {
+            samples = query.apply(afterId, toId, chunk);
+            for (BookingLatencySample sample : samples) {
+                if (sample.getAcceptedAt().isBefore(startedAt)) {
+                    record(scanned, sample, Metric.ACCEPT);
+                }
+                if (sample.getCompletedAt() != null && sample.getCompletedAt().isBefore(startedAt)) {
+                    record(scanned, sample, Metric.COMPLETE);
+                }
+                afterId = sample.getId();
+            }
+        } while (samples.size() == rebuildChunkSize);
+        return scanned;
+    }
+
+    @FunctionalInterface
+    private interface TriFunction<A, B, C, R> {
+        R apply(A a, B b, C c);
+    }
+
+    private static void record(Map<Metric, Histograms> target, BookingLatencySample sample, Metric metric) {
+        LocalDateTime from = metric == Metric.ACCEPT ? sample.getCreatedAt() : sample.getAcceptedAt();
+        LocalDateTime to = metric == Metric.ACCEPT ? sample.getAcceptedAt() : sample.getCompletedAt();
+        if (from == null || to == null) {
+            return;
+        }
+        String city = sample.getCity() != null ? sample.getCity().trim().toLowerCase() : "unknown";
+        int hour = sample.getCreatedAt() != null ? sample.getCreatedAt().getHour() : 0;
+        target.get(metric).record(city, sample.getMechanicId(), hour, Duration.between(from, to).getSeconds());
+    }
+
+    /**
+     * p50/p95/p99 in seconds for one metric grouped by a dimension. A key narrows the result to one
+     * group; otherwise the busiest groups up to the limit are returned.
+     */
+    public Map<String, Object> report(Metric metric, Dimension dimension, String key, int limit) {
+        Histograms source = histograms.get(metric);
+        Map<String, LatencyHistogram> groups = new LinkedHashMap<>();
+        switch (dimension) {
+            case OVERALL -> groups.put("all", source.overall);
+            case CITY -> source.byCity.forEach(groups::put);
+            case MECHANIC -> source.byMechanic.forEach((mechanicId, histogram) -> groups.put(mechanicId.toString(), histogram));
+            case HOUR -> {
+                for (int hour = 0; hour < source.byHour.length; hour++) {
+                    groups.put(String.valueOf(hour), source.byHour[hour]);
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("metric", metric);
+        result.put("dimension", dimension);
+        result.put("rebuilding", rebuilding);
+        Map<String, Object> summaries = new LinkedHashMap<>();
+        if (key != null) {
+            LatencyHistogram histogram = groups.get(dimension == Dimension.CITY ? key.trim().toLowerCase() : key);
+            if (histogram != null) {
+                summaries.put(key, histogram.summary());
+            }
+        } else if (dimension == Dimension.OVERALL || dimension == Dimension.HOUR) {
+            groups.forEach((group, histogram) -> summaries.put(group, histogram.summary()));
+        } else {
+            groups.entrySet().stream()
+                    .map(entry -> Map.entry(entry.getKey(), entry.getValue().count()))
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(limit)
+                    .forEach(entry -> summaries.put(entry.getKey(), groups.get(entry.getKey()).summary()));
+        }
+        result.put("groups", summaries);
+        return result;
+    }
+
+    // Null until the mechanic has a recorded latency for this metric
+    public Long percentile(Metric metric, Long mechanicId, double quantile) {
+        LatencyHistogram histogram = histograms.get(metric).byMechanic.get(mechanicId);
+        return histogram != null ? histogram.percentile(quantile) : null;
+    }
+
+    private static Map<Metric, Histograms> newHistograms() {
+        Map<Metric, Histograms> histograms = new EnumMap<>(Metric.class);
+        for (Metric metric : Metric.values()) {
+            histograms.put(metric, new Histograms());
+        }
+        return histograms;
+    }
+}
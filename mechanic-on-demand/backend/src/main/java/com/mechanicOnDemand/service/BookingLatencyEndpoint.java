@@ -0,0 +1,36 @@
+package com.mechanicOnDemand.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Exposes the booking latency histograms at /api/actuator/bookinglatency[/{metric}/{dimension}]
+@Component
+@Endpoint(id = "bookinglatency")
+public class BookingLatencyEndpoint {
+    private static final int MAX_GROUPS = 50;
+
+    @Autowired
+    private BookingLatencyAnalytics analytics;
+
+    @ReadOperation
+    public Map<String, Object> overview() {
+        Map<String, Object> overview = new LinkedHashMap<>();
+        for (BookingLatencyAnalytics.Metric metric : BookingLatencyAnalytics.Metric.values()) {
+            overview.put(metric.name().toLowerCase(),
+                    analytics.report(metric, BookingLatencyAnalytics.Dimension.OVERALL, null, MAX_GROUPS));
+        }
+        return overview;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report(@Selector String metric, @Selector String dimension) {
+        return analytics.report(BookingLatencyAnalytics.Metric.valueOf(metric.toUpperCase()),
+                BookingLatencyAnalytics.Dimension.valueOf(dimension.toUpperCase()), null, MAX_GROUPS);
+    }
+}
@@ -0,0 +1,50 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.BookingOffer;
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.repository.BookingOfferRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Offers of open bookings, stored so that any node can tell whether a mechanic was offered a job.
+ * The claim in {@link BookingService} only succeeds for a mechanic with a stored offer.
+ */
+@Service
+public class BookingOfferService {
+    @Autowired
+    private BookingOfferRepository bookingOfferRepository;
+
+    // Committed before the offers are pushed, so an accept reaching any node finds them
+    @Transactional
+    public void record(Long bookingId, Collection<Long> mechanicIds) {
+        LocalDateTime now = LocalDateTime.now();
+        bookingOfferRepository.saveAll(mechanicIds.stream()
+                .map(mechanicId -> new BookingOffer(bookingId, mechanicId, now))
+                .toList());
+    }
+
+    public boolean isOffered(Long bookingId, Long mechanicId) {
+        return bookingOfferRepository.existsByBookingIdAndMechanicId(bookingId, mechanicId);
+    }
+
+    // Username by mechanic id of everyone already offered the booking
+    public Map<Long, String> offeredMechanics(Long bookingId) {
+        Map<Long, String> offered = new HashMap<>();
+        for (Object[] row : bookingOfferRepository.findOfferedMechanics(bookingId)) {
+            offered.put((Long) row[0], (String) row[1]);
+        }
+        return offered;
+    }
+
+    @Transactional
+    public int purgeClosed() {
+        return bookingOfferRepository.deleteForClosedBookings(BookingStatus.PENDING);
+    }
+}
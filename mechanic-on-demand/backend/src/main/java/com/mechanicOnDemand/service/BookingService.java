@@ -1,22 +1,46 @@
 package com.mechanicOnDemand.service;
 
+import com.mechanicOnDemand.dto.BookingCursor;
+import com.mechanicOnDemand.dto.BookingListItem;
 import com.mechanicOnDemand.dto.BookingRequest;
+import com.mechanicOnDemand.dto.BookingSummary;
+import com.mechanicOnDemand.dto.BulkBookingStatusRequest;
+import com.mechanicOnDemand.dto.BulkBookingStatusResult;
+import com.mechanicOnDemand.dto.CursorPage;
 import com.mechanicOnDemand.model.*;
+import com.mechanicOnDemand.repository.ArchivedBookingRepository;
 import com.mechanicOnDemand.repository.BookingRepository;
+import com.mechanicOnDemand.repository.IdempotencyRecordRepository;
 import com.mechanicOnDemand.repository.MechanicRepository;
 import com.mechanicOnDemand.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -24,151 +48,445 @@ public class BookingService {
     private MechanicRepository mechanicRepository;
 
     @Autowired
-    private NotificationService notificationService;
-    
+    private OutboxService outboxService;
+
+    @Autowired
+    private BookingDispatcher bookingDispatcher;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private MechanicGeoIndex geoIndex;
+
+    @Autowired
+    private MechanicScheduleIndex scheduleIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DashboardCounterRegistry dashboardCounters;
+
     @Autowired
-    private WebSocketService webSocketService;
+    private BookingLatencyAnalytics latencyAnalytics;
+
+    @Autowired
+    private MechanicRankingIndex rankingIndex;
+
+    @Value("${app.bookings.max-page-size}")
+    private int maxPageSize;
+
+    @Value("${app.bookings.max-bulk-size}")
+    private int maxBulkSize;
 
     public List<Booking> getAllBookings() {
         return bookingRepository.findAll();
     }
 
+    // Full history: live bookings plus those already moved to the archive
     public List<Booking> getBookingsByCustomer(Long customerId) {
-        return bookingRepository.findByCustomerIdOrderByCreatedAtDesc(customerId);
+        return withArchived(bookingRepository.findByCustomerIdOrderByCreatedAtDesc(customerId),
+                archivedBookingRepository.findByCustomerIdOrderByCreatedAtDesc(customerId));
     }
 
     public List<Booking> getBookingsByMechanic(Long mechanicId) {
-        return bookingRepository.findByMechanicIdOrderByCreatedAtDesc(mechanicId);
+        return withArchived(bookingRepository.findByMechanicIdOrderByCreatedAtDesc(mechanicId),
+                archivedBookingRepository.findByMechanicIdOrderByCreatedAtDesc(mechanicId));
+    }
+
+    private static List<Booking> withArchived(List<Booking> live, List<ArchivedBooking> archived) {
+        List<Booking> bookings = new ArrayList<>(live);
+        archived.forEach(booking -> bookings.add(booking.toBooking()));
+        bookings.sort(Comparator.comparing(Booking::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return bookings;
+    }
+
+    public CursorPage<BookingSummary> getBookingPageByCustomer(Long customerId, BookingStatus status, String cursor, int size) {
+        BookingCursor position = BookingCursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+        // Fetch one extra row to learn whether another page exists without a COUNT
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        return toPage(merge(bookingRepository.findCustomerBookingsBefore(customerId, status,
+                position.getCreatedAt(), position.getId(), pageRequest),
+                archivedBookingRepository.findCustomerBookingsBefore(customerId, status,
+                position.getCreatedAt(), position.getId(), pageRequest), limit + 1), limit);
+    }
+
+    public CursorPage<BookingSummary> getBookingPageByMechanic(Long mechanicId, BookingStatus status, String cursor, int size) {
+        BookingCursor position = BookingCursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        return toPage(merge(bookingRepository.findMechanicBookingsBefore(mechanicId, status,
+                position.getCreatedAt(), position.getId(), pageRequest),
+                archivedBookingRepository.findMechanicBookingsBefore(mechanicId, status,
+                position.getCreatedAt(), position.getId(), pageRequest), limit + 1), limit);
+    }
+
+    // Both tables share the same keyset order, so merging the two heads gives the next rows of the combined history
+    private static List<BookingSummary> merge(List<BookingSummary> live, List<BookingSummary> archived, int max) {
+        List<BookingSummary> rows = new ArrayList<>(live);
+        rows.addAll(archived);
+        rows.sort(Comparator.comparing(BookingSummary::getCreatedAt).thenComparing(BookingSummary::getId).reversed());
+        return rows.size() > max ? rows.subList(0, max) : rows;
+    }
+
+    private CursorPage<BookingSummary> toPage(List<BookingSummary> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<BookingSummary> items = rows.subList(0, limit);
+        BookingSummary last = items.get(limit - 1);
+        return new CursorPage<>(items, new BookingCursor(last.getCreatedAt(), last.getId()).encode());
     }
 
     public Optional<Booking> getBookingById(Long bookingId) {
-        return bookingRepository.findById(bookingId);
+        return bookingRepository.findById(bookingId)
+                .or(() -> archivedBookingRepository.findWithPartiesById(bookingId).map(ArchivedBooking::toBooking));
     }
 
+    @Transactional
     public Booking createBooking(Long customerId, BookingRequest request) {
-        Optional<User> customerOpt = userRepository.findById(customerId);
-        Optional<Mechanic> mechanicOpt = mechanicRepository.findById(request.getMechanicId());
+        return createBooking(customerId, request, null);
+    }
 
-        if (customerOpt.isEmpty()) {
-            throw new RuntimeException("Customer not found");
+    /**
+     * Inserts the idempotency record first, so a concurrent request with the same key waits on the
+     * unique index and then fails instead of creating a second booking.
+     */
+    @Transactional
+    public Booking createBooking(Long customerId, BookingRequest request, IdempotencyRecord idempotencyRecord) {
+        if (idempotencyRecord != null) {
+            idempotencyRecordRepository.saveAndFlush(idempotencyRecord);
         }
-        if (mechanicOpt.isEmpty()) {
-            throw new RuntimeException("Mechanic not found");
+        Booking booking = buildBooking(customerId, request);
+        if (idempotencyRecord != null) {
+            idempotencyRecord.setBookingId(booking.getId());
         }
+        return booking;
+    }
 
+    private Booking buildBooking(Long customerId, BookingRequest request) {
+        Optional<User> customerOpt = userRepository.findById(customerId);
+        if (customerOpt.isEmpty()) {
+            throw new RuntimeException("Customer not found");
+        }
         User customer = customerOpt.get();
-        Mechanic mechanic = mechanicOpt.get();
 
         Booking booking = new Booking();
         booking.setCustomer(customer);
-        booking.setMechanic(mechanic);
         booking.setProblemDescription(request.getProblemDescription());
         booking.setVehicleType(request.getVehicleType());
         booking.setVehicleModel(request.getVehicleModel());
         booking.setServiceLocation(request.getServiceLocation());
         booking.setPreferredDateTime(request.getPreferredDateTime());
+        booking.setEstimatedDurationMinutes(request.getEstimatedDurationMinutes());
         booking.setStatus(BookingStatus.PENDING);
 
+        if (request.getMechanicId() == null) {
+            return createOpenBooking(customer, booking, request);
+        }
+
+        Optional<Mechanic> mechanicOpt = mechanicRepository.findById(request.getMechanicId());
+        if (mechanicOpt.isEmpty()) {
+            throw new RuntimeException("Mechanic not found");
+        }
+        Mechanic mechanic = mechanicOpt.get();
+        if (booking.getPreferredDateTime() != null
+                && !scheduleIndex.isFree(mechanic.getId(), booking.getPreferredDateTime(), scheduleIndex.durationOf(booking))) {
+            throw new BookingConflictException("Mechanic is not free at the preferred time, next free slot starts "
+                    + scheduleIndex.nextFreeSlot(mechanic.getId(), booking.getPreferredDateTime(), scheduleIndex.durationOf(booking)));
+        }
+        booking.setMechanic(mechanic);
+
         Booking savedBooking = bookingRepository.save(booking);
+        dashboardCounters.bookingCreated(savedBooking.getStatus());
 
-        // Send notification to mechanic
-        notificationService.createNotification(
-            mechanic.getUser(),
+        // Notify mechanic once the booking commits
+        outboxService.enqueue(new OutboxEvent(mechanic.getUser()).withNotification(
             "New Booking Request",
             "You have received a new booking request from " + customer.getFullName(),
             NotificationType.BOOKING_CREATED
-        );
+        ));
 
         return savedBooking;
     }
 
-    public Booking updateBookingStatus(Long bookingId, BookingStatus status, String mechanicNotes) {
-        Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
-        if (bookingOpt.isEmpty()) {
+    // No mechanic chosen: the dispatcher offers the job to nearby mechanics once the booking commits
+    private Booking createOpenBooking(User customer, Booking booking, BookingRequest request) {
+        double[] location;
+        if (request.getLatitude() != null && request.getLongitude() != null) {
+            location = new double[] { request.getLatitude(), request.getLongitude() };
+        } else {
+            location = geoIndex.locationOf(customer)
+                    .orElseThrow(() -> new RuntimeException("A location is required to find a nearby mechanic"));
+        }
+        booking.setServiceLatitude(location[0]);
+        booking.setServiceLongitude(location[1]);
+        booking.setRequiredSkills(request.getRequiredSkills());
+
+        Booking savedBooking = bookingRepository.save(booking);
+        dashboardCounters.bookingCreated(savedBooking.getStatus());
+        eventPublisher.publishEvent(new BookingDispatcher.OpenBookingCreated(savedBooking.getId(), location[0], location[1],
+                savedBooking.getRequiredSkills(), savedBooking.getPreferredDateTime(), scheduleIndex.durationOf(savedBooking),
+                savedBooking.getCreatedAt()));
+        return savedBooking;
+    }
+
+    @Transactional
+    public Booking updateBookingStatus(Long bookingId, Long mechanicUserId, BookingStatus status, String mechanicNotes) {
+        Booking booking = bookingRepository.findWithPartiesById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        if (booking.getMechanic() == null && status == BookingStatus.ACCEPTED) {
+            return claimOpenBooking(booking, mechanicUserId, mechanicNotes);
+        }
+        if (booking.getMechanic() == null || !booking.getMechanic().getUser().getId().equals(mechanicUserId)) {
             throw new RuntimeException("Booking not found");
         }
+        return transition(booking, status, mechanicNotes);
+    }
+
+    private Booking claimOpenBooking(Booking booking, Long mechanicUserId, String mechanicNotes) {
+        Mechanic mechanic = mechanicRepository.findByUserId(mechanicUserId)
+                .orElseThrow(() -> new RuntimeException("Mechanic profile not found"));
+        if (!MechanicGeoIndex.isSearchable(mechanic)) {
+            throw new RuntimeException("Only available, verified mechanics can take open jobs");
+        }
+        if (booking.getStatus() != BookingStatus.PENDING) {
+            throw new BookingConflictException("Booking cannot move from " + booking.getStatus() + " to " + BookingStatus.ACCEPTED);
+        }
+        if (!bookingDispatcher.tryClaim(booking.getId(), mechanic.getId())) {
+            throw new BookingConflictException("This job has already been taken");
+        }
+        // Withdraws the other offers after commit, or frees the claim again if this transaction rolls back
+        eventPublisher.publishEvent(new BookingDispatcher.OpenBookingClosed(booking.getId(), mechanic.getId()));
+        scheduleIndex.reserve(booking, mechanic.getId());
+
+        LocalDateTime now = LocalDateTime.now();
+        if (bookingRepository.claimOpenBooking(booking.getId(), mechanic.getId(), BookingStatus.PENDING.name(),
+                BookingStatus.ACCEPTED.name(), mechanicNotes, now) == 0) {
+            throw new BookingConflictException("This job has already been taken");
+        }
+
+        booking.setMechanic(mechanic);
+        booking.setStatus(BookingStatus.ACCEPTED);
+        booking.setVersion(booking.getVersion() + 1);
+        booking.setUpdatedAt(now);
+        booking.setAcceptedAt(now);
+        if (mechanicNotes != null) {
+            booking.setMechanicNotes(mechanicNotes);
+        }
+
+        dashboardCounters.bookingStatusChanged(BookingStatus.PENDING, BookingStatus.ACCEPTED);
+        latencyAnalytics.recordAfterCommit(booking, BookingStatus.ACCEPTED);
+        rankingIndex.bookingChangedAfterCommit(booking, BookingStatus.ACCEPTED);
+        enqueue(onTransition(booking, BookingStatus.ACCEPTED));
+        return booking;
+    }
+
+    // Called by the dispatcher once every wave of offers has timed out
+    @Transactional
+    public void expireOpenBooking(Long bookingId) {
+        Optional<Booking> bookingOpt = bookingRepository.findWithPartiesById(bookingId);
+        if (bookingOpt.isPresent() && bookingOpt.get().getMechanic() == null
+                && bookingOpt.get().getStatus() == BookingStatus.PENDING) {
+            transition(bookingOpt.get(), BookingStatus.EXPIRED, null);
+        }
+    }
+
+    public boolean isVisibleToMechanic(Booking booking, Long mechanicId) {
+        if (booking.getMechanic() == null) {
+            return bookingDispatcher.isOffered(booking.getId(), mechanicId);
+        }
+        return booking.getMechanic().getId().equals(mechanicId);
+    }
+
+    @Transactional
+    public Booking cancelBooking(Long bookingId, Long customerId) {
+        Booking booking = bookingRepository.findWithPartiesById(bookingId)
+                .filter(b -> b.getCustomer().getId().equals(customerId))
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        return transition(booking, BookingStatus.CANCELLED, null);
+    }
+
+    private Booking transition(Booking booking, BookingStatus target, String mechanicNotes) {
+        BookingStatus oldStatus = prepareTransition(booking, target);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime acceptedAt = target == BookingStatus.ACCEPTED ? now : null;
+        LocalDateTime completedAt = target == BookingStatus.COMPLETED ? now : null;
+        int updated = bookingRepository.transition(booking.getId(), booking.getVersion(),
+                BookingStateMachine.sourcesOf(target), target, mechanicNotes, now, acceptedAt, completedAt);
+        if (updated == 0) {
+            throw new BookingConflictException("Booking was changed by someone else, please reload and try again");
+        }
+
+        // Mirror the update on the loaded copy instead of reading the row back
+        booking.setVersion(booking.getVersion() + 1);
+        enqueue(applyTransition(booking, oldStatus, target, mechanicNotes, now));
+        return booking;
+    }
+
+    /**
+     * Applies each transition to the managed bookings and flushes them together, so Hibernate sends
+     * the versioned UPDATEs as one JDBC batch. Items that fail validation are reported and skipped;
+     * if any booking changed concurrently the whole batch rolls back.
+     */
+    @Transactional
+    public List<BulkBookingStatusResult> bulkUpdateBookingStatus(Long mechanicUserId, List<BulkBookingStatusRequest.Item> items) {
+        if (items.size() > maxBulkSize) {
+            throw new RuntimeException("At most " + maxBulkSize + " bookings can be updated at once");
+        }
+        Map<Long, Booking> bookings = bookingRepository.findWithPartiesByIdIn(
+                        items.stream().map(BulkBookingStatusRequest.Item::getBookingId).toList())
+                .stream().collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> seen = new HashSet<>();
+        List<BulkBookingStatusResult> results = new ArrayList<>(items.size());
+        List<OutboxEvent> events = new ArrayList<>();
+        for (BulkBookingStatusRequest.Item item : items) {
+            Booking booking = bookings.get(item.getBookingId());
+            if (booking == null || (mechanicUserId != null && (booking.getMechanic() == null
+                    || !booking.getMechanic().getUser().getId().equals(mechanicUserId)))) {
+                results.add(BulkBookingStatusResult.failed(item.getBookingId(), "Booking not found"));
+            } else if (!seen.add(booking.getId())) {
+                results.add(BulkBookingStatusResult.failed(item.getBookingId(), "Booking is listed more than once"));
+            } else if (booking.getMechanic() == null) {
+                results.add(BulkBookingStatusResult.failed(item.getBookingId(), "Open bookings cannot be updated in bulk"));
+            } else {
+                try {
+                    BookingStatus oldStatus = prepareTransition(booking, item.getStatus());
+                    addEvent(events, applyTransition(booking, oldStatus, item.getStatus(), item.getNotes(), now));
+                    results.add(BulkBookingStatusResult.updated(booking.getId(), item.getStatus()));
+                } catch (BookingConflictException e) {
+                    results.add(BulkBookingStatusResult.failed(item.getBookingId(), e.getMessage()));
+                }
+            }
+        }
+        bookingRepository.flush();
+        outboxService.enqueueAll(events);
+        return results;
+    }
+
+    /**
+     * Expires one batch of bookings that stayed PENDING since before the cutoff, oldest first.
+     * Rows another transaction holds are skipped rather than waited on and get picked up by a later batch.
+     */
+    @Transactional
+    public int expireStalePending(LocalDateTime cutoff, int batchSize) {
+        List<Booking> stale = bookingRepository.findStaleForUpdate(BookingStatus.PENDING, cutoff, PageRequest.of(0, batchSize));
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(stale.size());
+        for (Booking booking : stale) {
+            BookingStatus oldStatus = prepareTransition(booking, BookingStatus.EXPIRED);
+            addEvent(events, applyTransition(booking, oldStatus, BookingStatus.EXPIRED, null, now));
+        }
+        bookingRepository.flush();
+        outboxService.enqueueAll(events);
+        return stale.size();
+    }
 
-        Booking booking = bookingOpt.get();
+    private BookingStatus prepareTransition(Booking booking, BookingStatus target) {
         BookingStatus oldStatus = booking.getStatus();
-        booking.setStatus(status);
-        
+        if (!BookingStateMachine.canTransition(oldStatus, target)) {
+            throw new BookingConflictException("Booking cannot move from " + oldStatus + " to " + target);
+        }
+        if (target == BookingStatus.ACCEPTED) {
+            scheduleIndex.reserve(booking, booking.getMechanic().getId());
+        } else if (target != BookingStatus.IN_PROGRESS) {
+            scheduleIndex.release(booking.getId());
+        }
+        return oldStatus;
+    }
+
+    private OutboxEvent applyTransition(Booking booking, BookingStatus oldStatus, BookingStatus target, String mechanicNotes,
+                                        LocalDateTime now) {
+        booking.setStatus(target);
+        booking.setUpdatedAt(now);
         if (mechanicNotes != null) {
             booking.setMechanicNotes(mechanicNotes);
         }
+        if (target == BookingStatus.ACCEPTED) {
+            booking.setAcceptedAt(now);
+        } else if (target == BookingStatus.COMPLETED) {
+            booking.setCompletedAt(now);
+        }
+
+        dashboardCounters.bookingStatusChanged(oldStatus, target);
+        latencyAnalytics.recordAfterCommit(booking, target);
+        rankingIndex.bookingChangedAfterCommit(booking, target);
+        return onTransition(booking, target);
+    }
+
+    private void enqueue(OutboxEvent event) {
+        if (event != null) {
+            outboxService.enqueue(event);
+        }
+    }
+
+    private static void addEvent(List<OutboxEvent> events, OutboxEvent event) {
+        if (event != null) {
+            events.add(event);
+        }
+    }
 
-        if (status == BookingStatus.ACCEPTED && oldStatus != BookingStatus.ACCEPTED) {
-            booking.setAcceptedAt(LocalDateTime.now());
-            // Send notification to customer
-            notificationService.createNotification(
-                booking.getCustomer(),
+    // Side effects of a committed transition; returns the outbox event to deliver, if any
+    private OutboxEvent onTransition(Booking booking, BookingStatus status) {
+        Mechanic mechanic = booking.getMechanic();
+        if (mechanic == null) {
+            // An open booking closed before anyone took it
+            eventPublisher.publishEvent(new BookingDispatcher.OpenBookingClosed(booking.getId(), null));
+            if (status == BookingStatus.EXPIRED) {
+                return new OutboxEvent(booking.getCustomer()).withNotification(
+                    "No Mechanic Found",
+                    "No nearby mechanic accepted your booking in time, please try again",
+                    NotificationType.BOOKING_EXPIRED
+                ).withBookingUpdate(booking.getId(), status, "No mechanic accepted your booking.");
+            }
+            return null;
+        }
+        String mechanicName = mechanic.getUser().getFullName();
+        return switch (status) {
+            case ACCEPTED -> new OutboxEvent(booking.getCustomer()).withNotification(
                 "Booking Accepted",
-                "Your booking request has been accepted by " + booking.getMechanic().getUser().getFullName(),
+                "Your booking request has been accepted by " + mechanicName,
                 NotificationType.BOOKING_ACCEPTED
-            );
-            // Send WebSocket update
-            webSocketService.sendBookingUpdate(
-                booking.getCustomer().getUsername(),
-                booking.getId().toString(),
-                "ACCEPTED",
-                "Your booking has been accepted!"
-            );
-        } else if (status == BookingStatus.COMPLETED && oldStatus != BookingStatus.COMPLETED) {
-            booking.setCompletedAt(LocalDateTime.now());
-            // Send notification to customer
-            notificationService.createNotification(
-                booking.getCustomer(),
+            ).withBookingUpdate(booking.getId(), status, "Your booking has been accepted!");
+            case IN_PROGRESS -> new OutboxEvent(booking.getCustomer())
+                .withBookingUpdate(booking.getId(), status, mechanicName + " has started working on your vehicle.");
+            case COMPLETED -> new OutboxEvent(booking.getCustomer()).withNotification(
                 "Service Completed",
-                "Your service has been completed by " + booking.getMechanic().getUser().getFullName(),
+                "Your service has been completed by " + mechanicName,
                 NotificationType.BOOKING_COMPLETED
-            );
-            // Send WebSocket update
-            webSocketService.sendBookingUpdate(
-                booking.getCustomer().getUsername(),
-                booking.getId().toString(),
-                "COMPLETED",
-                "Your service has been completed!"
-            );
-        } else if (status == BookingStatus.REJECTED && oldStatus != BookingStatus.REJECTED) {
-            // Send notification to customer
-            notificationService.createNotification(
-                booking.getCustomer(),
+            ).withBookingUpdate(booking.getId(), status, "Your service has been completed!");
+            case REJECTED -> new OutboxEvent(booking.getCustomer()).withNotification(
                 "Booking Rejected",
-                "Your booking request has been rejected by " + booking.getMechanic().getUser().getFullName(),
+                "Your booking request has been rejected by " + mechanicName,
                 NotificationType.BOOKING_REJECTED
-            );
-            // Send WebSocket update
-            webSocketService.sendBookingUpdate(
-                booking.getCustomer().getUsername(),
-                booking.getId().toString(),
-                "REJECTED",
-                "Your booking has been rejected."
-            );
-        }
-
-        return bookingRepository.save(booking);
-    }
-
-    public void cancelBooking(Long bookingId) {
-        Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
-        if (bookingOpt.isPresent()) {
-            Booking booking = bookingOpt.get();
-            booking.setStatus(BookingStatus.CANCELLED);
-            bookingRepository.save(booking);
-
-            // Send notification to mechanic
-            notificationService.createNotification(
-                booking.getMechanic().getUser(),
+            ).withBookingUpdate(booking.getId(), status, "Your booking has been rejected.");
+            case CANCELLED -> new OutboxEvent(mechanic.getUser()).withNotification(
                 "Booking Cancelled",
                 "A booking has been cancelled by " + booking.getCustomer().getFullName(),
                 NotificationType.BOOKING_CANCELLED
             );
-        }
+            case EXPIRED -> new OutboxEvent(booking.getCustomer()).withNotification(
+                "Booking Expired",
+                mechanicName + " did not respond to your booking request in time, please book another mechanic",
+                NotificationType.BOOKING_EXPIRED
+            ).withBookingUpdate(booking.getId(), status, "Your booking request has expired.");
+            default -> null;
+        };
     }
 
     public List<Booking> getBookingsByStatus(BookingStatus status) {
         return bookingRepository.findByStatus(status);
     }
 
+    public Slice<BookingListItem> getBookingListItems(BookingStatus status, Pageable pageable) {
+        return bookingRepository.findListItems(status, pageable);
+    }
+
     public Long getBookingCountByStatus(BookingStatus status) {
         return bookingRepository.countByStatus(status);
     }
@@ -0,0 +1,41 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.BookingStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+// Legal booking status transitions; anything not listed here is rejected
+public final class BookingStateMachine {
+    private static final Map<BookingStatus, Set<BookingStatus>> TRANSITIONS = new EnumMap<>(BookingStatus.class);
+    private static final Map<BookingStatus, Set<BookingStatus>> SOURCES = new EnumMap<>(BookingStatus.class);
+
+    static {
+        allow(BookingStatus.PENDING, BookingStatus.ACCEPTED, BookingStatus.REJECTED, BookingStatus.CANCELLED,
+                BookingStatus.EXPIRED);
+        allow(BookingStatus.ACCEPTED, BookingStatus.IN_PROGRESS, BookingStatus.COMPLETED, BookingStatus.CANCELLED);
+        allow(BookingStatus.IN_PROGRESS, BookingStatus.COMPLETED);
+    }
+
+    private BookingStateMachine() {
+    }
+
+    private static void allow(BookingStatus from, BookingStatus... targets) {
+        for (BookingStatus target : targets) {
+            TRANSITIONS.computeIfAbsent(from, s -> EnumSet.noneOf(BookingStatus.class)).add(target);
+            SOURCES.computeIfAbsent(target, s -> EnumSet.noneOf(BookingStatus.class)).add(from);
+        }
+    }
+
+    public static boolean canTransition(BookingStatus from, BookingStatus to) {
+        return TRANSITIONS.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    // Statuses a booking may be in for a move to the given status to be legal
+    public static Set<BookingStatus> sourcesOf(BookingStatus to) {
+        return Collections.unmodifiableSet(SOURCES.getOrDefault(to, EnumSet.noneOf(BookingStatus.class)));
+    }
+}
@@ -0,0 +1,202 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.model.Role;
+import com.mechanicOnDemand.repository.ArchivedBookingRepository;
+import com.mechanicOnDemand.repository.BookingRepository;
+import com.mechanicOnDemand.repository.MechanicRepository;
+import com.mechanicOnDemand.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory dashboard counters. Seeded from GROUP BY counts, adjusted on every committed write and
+ * periodically reconciled against the database to repair drift from other nodes or missed hooks.
+ */
+@Component
+public class DashboardCounterRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardCounterRegistry.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MechanicRepository mechanicRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong activeUsers = new AtomicLong();
+    private final Map<Role, AtomicLong> usersByRole = counters(Role.class);
+    private final AtomicLong verifiedMechanics = new AtomicLong();
+    private final AtomicLong availableMechanics = new AtomicLong();
+    private final Map<BookingStatus, AtomicLong> bookingsByStatus = counters(BookingStatus.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-ms}", initialDelayString = "${app.dashboard.reconcile-ms}")
+    public void reconcile() {
+        try {
+            long total = 0;
+            long active = 0;
+            Map<Role, Long> roles = new EnumMap<>(Role.class);
+            for (Object[] row : userRepository.countByRoleAndActive()) {
+                long count = (Long) row[2];
+                total += count;
+                if (Boolean.TRUE.equals(row[1])) {
+                    active += count;
+                }
+                if (row[0] != null) {
+                    roles.merge((Role) row[0], count, Long::sum);
+                }
+            }
+
+            long verified = 0;
+            long available = 0;
+            for (Object[] row : mechanicRepository.countByVerifiedAndAvailable()) {
+                long count = (Long) row[2];
+                if (Boolean.TRUE.equals(row[0])) {
+                    verified += count;
+                }
+                if (Boolean.TRUE.equals(row[1])) {
+                    available += count;
+                }
+            }
+
+            Map<BookingStatus, Long> statuses = new EnumMap<>(BookingStatus.class);
+            for (Object[] row : bookingRepository.countGroupedByStatus()) {
+                statuses.put((BookingStatus) row[0], (Long) row[1]);
+            }
+            // Archived bookings still count towards the totals
+            for (Object[] row : archivedBookingRepository.countGroupedByStatus()) {
+                statuses.merge((BookingStatus) row[0], (Long) row[1], Long::sum);
+            }
+
+            totalUsers.set(total);
+            activeUsers.set(active);
+            usersByRole.forEach((role, counter) -> counter.set(roles.getOrDefault(role, 0L)));
+            verifiedMechanics.set(verified);
+            availableMechanics.set(available);
+            bookingsByStatus.forEach((status, counter) -> counter.set(statuses.getOrDefault(status, 0L)));
+        } catch (Exception e) {
+            logger.warn("Dashboard counter reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    // Adjustments apply once the surrounding transaction commits, so a rollback leaves the counters alone
+    public void userRegistered(Role role, boolean active) {
+        afterCommit(() -> {
+            totalUsers.incrementAndGet();
+            if (active) {
+                activeUsers.incrementAndGet();
+            }
+            if (role != null) {
+                usersByRole.get(role).incrementAndGet();
+            }
+        });
+    }
+
+    public void userActivationChanged(boolean wasActive, boolean isActive) {
+        if (wasActive != isActive) {
+            afterCommit(() -> activeUsers.addAndGet(isActive ? 1 : -1));
+        }
+    }
+
+    public void userDeleted(Role role, boolean wasActive) {
+        afterCommit(() -> {
+            totalUsers.decrementAndGet();
+            if (wasActive) {
+                activeUsers.decrementAndGet();
+            }
+            if (role != null) {
+                usersByRole.get(role).decrementAndGet();
+            }
+        });
+    }
+
+    // Pass null for the previous state of a newly created profile and for the new state of a deleted one
+    public void mechanicChanged(Boolean wasVerified, Boolean wasAvailable, Boolean isVerified, Boolean isAvailable) {
+        long verified = delta(wasVerified, isVerified);
+        long available = delta(wasAvailable, isAvailable);
+        if (verified != 0 || available != 0) {
+            afterCommit(() -> {
+                verifiedMechanics.addAndGet(verified);
+                availableMechanics.addAndGet(available);
+            });
+        }
+    }
+
+    public void bookingCreated(BookingStatus status) {
+        afterCommit(() -> bookingsByStatus.get(status).incrementAndGet());
+    }
+
+    public void bookingStatusChanged(BookingStatus from, BookingStatus to) {
+        if (from != to) {
+            afterCommit(() -> {
+                bookingsByStatus.get(from).decrementAndGet();
+                bookingsByStatus.get(to).incrementAndGet();
+            });
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalUsers", totalUsers.get());
+        stats.put("totalCustomers", usersByRole.get(Role.CUSTOMER).get());
+        stats.put("totalMechanics", usersByRole.get(Role.MECHANIC).get());
+        stats.put("activeUsers", activeUsers.get());
+
+        stats.put("verifiedMechanics", verifiedMechanics.get());
+        stats.put("availableMechanics", availableMechanics.get());
+
+        stats.put("totalBookings", bookingsByStatus.values().stream().mapToLong(AtomicLong::get).sum());
+        stats.put("pendingBookings", bookingsByStatus.get(BookingStatus.PENDING).get());
+        stats.put("acceptedBookings", bookingsByStatus.get(BookingStatus.ACCEPTED).get());
+        stats.put("inProgressBookings", bookingsByStatus.get(BookingStatus.IN_PROGRESS).get());
+        stats.put("completedBookings", bookingsByStatus.get(BookingStatus.COMPLETED).get());
+        stats.put("cancelledBookings", bookingsByStatus.get(BookingStatus.CANCELLED).get());
+        stats.put("expiredBookings", bookingsByStatus.get(BookingStatus.EXPIRED).get());
+        stats.put("rejectedBookings", bookingsByStatus.get(BookingStatus.REJECTED).get());
+        return stats;
+    }
+
+    private static long delta(Boolean before, Boolean after) {
+        return (Boolean.TRUE.equals(after) ? 1 : 0) - (Boolean.TRUE.equals(before) ? 1 : 0);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static <E extends Enum<E>> Map<E, AtomicLong> counters(Class<E> type) {
+        Map<E, AtomicLong> counters = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            counters.put(value, new AtomicLong());
+        }
+        return counters;
+    }
+}
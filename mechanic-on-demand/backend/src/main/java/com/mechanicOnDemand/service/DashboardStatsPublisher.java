@@ -0,0 +1,73 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.security.StompAuthChannelInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes the dashboard counters to admins over STOMP. Each tick sends at most one frame: a full
+ * snapshot when someone subscribed since the last tick, otherwise the changes since the previous
+ * frame, or nothing when no counter moved. Clients apply deltas on top of the latest snapshot.
+ */
+@Component
+public class DashboardStatsPublisher {
+    public static final String DESTINATION = StompAuthChannelInterceptor.ADMIN_TOPIC_PREFIX + "/stats";
+
+    @Autowired
+    private DashboardCounterRegistry dashboardCounters;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final AtomicBoolean snapshotRequested = new AtomicBoolean();
+    private Map<String, Object> lastPublished = Map.of();
+    private long sequence;
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        if (DESTINATION.equals(StompHeaderAccessor.wrap(event.getMessage()).getDestination())) {
+            // Sent on the next tick, once the broker has registered the subscription
+            snapshotRequested.set(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.push-ms}")
+    public synchronized void publish() {
+        Map<String, Object> current = dashboardCounters.snapshot();
+        Map<String, Object> frame = new LinkedHashMap<>();
+        if (snapshotRequested.getAndSet(false)) {
+            frame.put("type", "snapshot");
+            frame.put("stats", current);
+        } else if (lastPublished.isEmpty()) {
+            // Nothing to diff against yet
+            lastPublished = current;
+            return;
+        } else {
+            Map<String, Long> changes = new LinkedHashMap<>();
+            current.forEach((key, value) -> {
+                long delta = (Long) value - (Long) lastPublished.getOrDefault(key, 0L);
+                if (delta != 0) {
+                    changes.put(key, delta);
+                }
+            });
+            if (changes.isEmpty()) {
+                return;
+            }
+            frame.put("type", "delta");
+            frame.put("changes", changes);
+        }
+        frame.put("seq", ++sequence);
+        frame.put("timestamp", System.currentTimeMillis());
+        lastPublished = current;
+        messagingTemplate.convertAndSend(DESTINATION, frame);
+    }
+}
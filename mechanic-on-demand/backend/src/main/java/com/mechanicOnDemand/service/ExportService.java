@@ -0,0 +1,178 @@
+package com.mechanicOnDemand.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mechanicOnDemand.model.ArchivedBooking;
+import com.mechanicOnDemand.model.Booking;
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.model.Role;
+import com.mechanicOnDemand.model.User;
+import com.mechanicOnDemand.repository.ArchivedBookingRepository;
+import com.mechanicOnDemand.repository.BookingRepository;
+import com.mechanicOnDemand.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams bookings and users straight from a forward-only cursor to the response, so an export of any size
+ * runs in constant memory. Rows are written as flat records and each entity is detached once written.
+ */
+@Service
+public class ExportService {
+    public enum Format { NDJSON, CSV }
+
+    private static final List<String> BOOKING_COLUMNS = List.of("id", "status", "createdAt", "acceptedAt", "completedAt",
+            "customerId", "customerName", "mechanicId", "mechanicName", "vehicleType", "vehicleModel", "serviceLocation",
+            "preferredDateTime", "estimatedCost", "finalCost", "problemDescription", "mechanicNotes");
+
+    private static final List<String> USER_COLUMNS = List.of("id", "username", "email", "fullName", "phoneNumber",
+            "city", "pincode", "role", "isActive", "createdAt");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.export.clear-every}")
+    private int clearEvery;
+
+    // Live bookings first, then archived ones, each oldest first
+    public StreamingResponseBody exportBookings(LocalDateTime from, LocalDateTime to, BookingStatus status, Format format) {
+        return out -> write(out, format, BOOKING_COLUMNS, writer -> {
+            try (Stream<Booking> live = bookingRepository.streamBookingsBetweenDates(from, to, status)) {
+                writeRows(writer, format, BOOKING_COLUMNS, live, this::bookingRow);
+            }
+            try (Stream<ArchivedBooking> archived = archivedBookingRepository.streamBookingsBetweenDates(from, to, status)) {
+                writeRows(writer, format, BOOKING_COLUMNS, archived, booking -> bookingRow(booking.toBooking()));
+            }
+        });
+    }
+
+    public StreamingResponseBody exportUsers(Role role, Format format) {
+        return out -> write(out, format, USER_COLUMNS, writer -> {
+            try (Stream<User> users = userRepository.streamByRole(role)) {
+                writeRows(writer, format, USER_COLUMNS, users, this::userRow);
+            }
+        });
+    }
+
+    private interface RowSource {
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    private void write(OutputStream out, Format format, List<String> columns, RowSource source) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writeCsvLine(writer, new ArrayList<>(columns));
+        }
+        // The response is written after the controller returns, so the cursor needs a transaction of its own
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            transaction.executeWithoutResult(status -> {
+                try {
+                    source.writeTo(writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private <T> void writeRows(Writer writer, Format format, List<String> columns, Stream<T> rows,
+                               Function<T, List<Object>> toRow) throws IOException {
+        int written = 0;
+        for (T entity : (Iterable<T>) rows::iterator) {
+            List<Object> values = toRow.apply(entity);
+            if (format == Format.CSV) {
+                writeCsvLine(writer, values);
+            } else {
+                Map<String, Object> record = new LinkedHashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    record.put(columns.get(i), values.get(i));
+                }
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.write('\n');
+            }
+            entityManager.detach(entity);
+            // Detaching the row leaves its customer and mechanic behind; clear those out periodically
+            if (++written % clearEvery == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+
+    private List<Object> bookingRow(Booking booking) {
+        User customer = booking.getCustomer();
+        User mechanicUser = booking.getMechanic() != null ? booking.getMechanic().getUser() : null;
+        return Arrays.asList(booking.getId(), booking.getStatus(), booking.getCreatedAt(), booking.getAcceptedAt(),
+                booking.getCompletedAt(), customer.getId(), customer.getFullName(),
+                booking.getMechanic() != null ? booking.getMechanic().getId() : null,
+                mechanicUser != null ? mechanicUser.getFullName() : null, booking.getVehicleType(),
+                booking.getVehicleModel(), booking.getServiceLocation(), booking.getPreferredDateTime(),
+                booking.getEstimatedCost(), booking.getFinalCost(), booking.getProblemDescription(),
+                booking.getMechanicNotes());
+    }
+
+    private List<Object> userRow(User user) {
+        return Arrays.asList(user.getId(), user.getUsername(), user.getEmail(), user.getFullName(), user.getPhoneNumber(),
+                user.getCity(), user.getPincode(), user.getRole(), user.getIsActive(), user.getCreatedAt());
+    }
+
+    private static void writeCsvLine(Writer writer, List<Object> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writer.write(csvField(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,96 @@
+package com.mechanicOnDemand.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size log-linear histogram of durations in seconds, in the style of HdrHistogram: every power of two
+ * is split into 16 linear sub-buckets, so any reported percentile is within about 6% of the true value.
+ * Values from 0 up to about 194 days are tracked; larger ones land in the last bucket. Histograms with
+ * the same layout merge by adding their counts, which is what lets per-dimension views be combined.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 24;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long seconds) {
+        counts.incrementAndGet(indexOf(Math.max(0, seconds)));
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    // Midpoint of the bucket holding the given quantile, or null when nothing was recorded
+    public Long percentile(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return lowerBoundOf(i) + (widthOf(i) - 1) / 2;
+            }
+        }
+        return lowerBoundOf(BUCKETS - 1);
+    }
+
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count());
+        summary.put("p50Seconds", percentile(0.50));
+        summary.put("p95Seconds", percentile(0.95));
+        summary.put("p99Seconds", percentile(0.99));
+        return summary;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        if (exponent == MAX_EXPONENT && value >= 1L << (MAX_EXPONENT + 1)) {
+            return BUCKETS - 1;
+        }
+        long mantissa = value >> (exponent - SUB_BUCKET_BITS);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + (int) (mantissa - SUB_BUCKETS);
+    }
+
+    static long lowerBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS - 1 + SUB_BUCKET_BITS;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    private static long widthOf(int index) {
+        return index < SUB_BUCKETS ? 1 : 1L << (index / SUB_BUCKETS - 1);
+    }
+}
@@ -0,0 +1,224 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.dto.NearbyMechanicResponse;
+import com.mechanicOnDemand.model.Mechanic;
+import com.mechanicOnDemand.model.User;
+import com.mechanicOnDemand.repository.MechanicRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-size lat/lon grid of available, verified mechanics. A k-nearest query scans rings of cells
+ * outwards from the query point and stops once no unscanned cell can beat the current k-th hit.
+ */
+@Component
+public class MechanicGeoIndex {
+    private static final Logger logger = LoggerFactory.getLogger(MechanicGeoIndex.class);
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    @Autowired
+    private MechanicRepository mechanicRepository;
+
+    @Autowired
+    private PincodeDirectory pincodeDirectory;
+
+    @Value("${app.geo.cell-size-degrees}")
+    private double cellSizeDegrees;
+
+    private final Map<Long, Map<Long, NearbyMechanicResponse>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Long> cellByMechanic = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        List<Mechanic> mechanics = mechanicRepository.findAvailableVerifiedMechanics();
+        mechanics.forEach(this::index);
+        logger.info("Indexed {} of {} available mechanics by location", cellByMechanic.size(), mechanics.size());
+    }
+
+    public synchronized void index(Mechanic mechanic) {
+        Optional<double[]> location = locationOf(mechanic.getUser());
+        if (!isSearchable(mechanic) || location.isEmpty()) {
+            remove(mechanic.getId());
+            return;
+        }
+
+        double latitude = location.get()[0];
+        double longitude = location.get()[1];
+        long cell = cellKey(latIndex(latitude), lonIndex(longitude));
+
+        Long previousCell = cellByMechanic.put(mechanic.getId(), cell);
+        if (previousCell != null && previousCell != cell) {
+            removeFromCell(previousCell, mechanic.getId());
+        }
+        cells.computeIfAbsent(cell, key -> new ConcurrentHashMap<>())
+                .put(mechanic.getId(), snapshot(mechanic, latitude, longitude));
+    }
+
+    public synchronized void remove(Long mechanicId) {
+        Long cell = cellByMechanic.remove(mechanicId);
+        if (cell != null) {
+            removeFromCell(cell, mechanicId);
+        }
+    }
+
+    public boolean contains(Long mechanicId) {
+        return cellByMechanic.containsKey(mechanicId);
+    }
+
+    public List<NearbyMechanicResponse> nearest(double latitude, double longitude, double radiusKm, int k) {
+        PriorityQueue<NearbyMechanicResponse> best = new PriorityQueue<>(k,
+                Comparator.comparingDouble(NearbyMechanicResponse::getDistanceKm).reversed());
+
+        int maxRing = ringsCovering(latitude, radiusKm);
+        long cellsInRange = (2L * maxRing + 1) * (2L * maxRing + 1);
+        if (cellsInRange > cellByMechanic.size()) {
+            // Sparse index or huge radius: a straight scan touches fewer entries than the ring walk
+            cells.values().forEach(cell -> collect(cell, latitude, longitude, radiusKm, k, best));
+        } else {
+            int centerLat = latIndex(latitude);
+            int centerLon = lonIndex(longitude);
+            for (int ring = 0; ring <= maxRing; ring++) {
+                if (best.size() == k && ringLowerBoundKm(latitude, ring) > best.peek().getDistanceKm()) {
+                    break;
+                }
+                scanRing(centerLat, centerLon, ring, latitude, longitude, radiusKm, k, best);
+            }
+        }
+
+        List<NearbyMechanicResponse> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(NearbyMechanicResponse::getDistanceKm));
+        return result;
+    }
+
+    public Optional<double[]> locationOf(User user) {
+        if (user == null) {
+            return Optional.empty();
+        }
+        if (user.getLatitude() != null && user.getLongitude() != null) {
+            return Optional.of(new double[] { user.getLatitude(), user.getLongitude() });
+        }
+        return pincodeDirectory.centroidOf(user.getPincode());
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private void scanRing(int centerLat, int centerLon, int ring, double latitude, double longitude,
+                          double radiusKm, int k, PriorityQueue<NearbyMechanicResponse> best) {
+        for (int dLat = -ring; dLat <= ring; dLat++) {
+            boolean edgeRow = Math.abs(dLat) == ring;
+            for (int dLon = -ring; dLon <= ring; dLon += edgeRow ? 1 : 2 * ring) {
+                Map<Long, NearbyMechanicResponse> cell = cells.get(cellKey(centerLat + dLat, centerLon + dLon));
+                if (cell != null) {
+                    collect(cell, latitude, longitude, radiusKm, k, best);
+                }
+                if (ring == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void collect(Map<Long, NearbyMechanicResponse> cell, double latitude, double longitude,
+                         double radiusKm, int k, PriorityQueue<NearbyMechanicResponse> best) {
+        for (NearbyMechanicResponse entry : cell.values()) {
+            double distance = distanceKm(latitude, longitude, entry.getLatitude(), entry.getLongitude());
+            if (distance > radiusKm) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(entry.withDistance(distance));
+            } else if (distance < best.peek().getDistanceKm()) {
+                best.poll();
+                best.add(entry.withDistance(distance));
+            }
+        }
+    }
+
+    // Anything outside rings 0..ring-1 is at least (ring - 1) whole cells away along some axis
+    private double ringLowerBoundKm(double latitude, int ring) {
+        return Math.max(0, ring - 1) * cellSizeDegrees * minKmPerDegree(latitude, ring);
+    }
+
+    private int ringsCovering(double latitude, double radiusKm) {
+        int ring = 0;
+        while (ring * cellSizeDegrees * minKmPerDegree(latitude, ring) < radiusKm && ring < 10_000) {
+            ring++;
+        }
+        return ring;
+    }
+
+    // Longitude degrees shrink towards the poles, so use the narrowest row the ring can reach
+    private double minKmPerDegree(double latitude, int ring) {
+        double extremeLatitude = Math.min(89.9, Math.abs(latitude) + (ring + 1) * cellSizeDegrees);
+        return KM_PER_DEGREE * Math.cos(Math.toRadians(extremeLatitude));
+    }
+
+    private void removeFromCell(long cell, Long mechanicId) {
+        Map<Long, NearbyMechanicResponse> members = cells.get(cell);
+        if (members != null) {
+            members.remove(mechanicId);
+            if (members.isEmpty()) {
+                cells.remove(cell, members);
+            }
+        }
+    }
+
+    static boolean isSearchable(Mechanic mechanic) {
+        return Boolean.TRUE.equals(mechanic.getIsAvailable())
+                && Boolean.TRUE.equals(mechanic.getIsVerified())
+                && mechanic.getUser() != null
+                && !Boolean.FALSE.equals(mechanic.getUser().getIsActive());
+    }
+
+    private NearbyMechanicResponse snapshot(Mechanic mechanic, double latitude, double longitude) {
+        User user = mechanic.getUser();
+        NearbyMechanicResponse entry = new NearbyMechanicResponse();
+        entry.setMechanicId(mechanic.getId());
+        entry.setUserId(user.getId());
+        entry.setFullName(user.getFullName());
+        entry.setPhoneNumber(user.getPhoneNumber());
+        entry.setCity(user.getCity());
+        entry.setPincode(user.getPincode());
+        entry.setSkills(mechanic.getSkills());
+        entry.setHourlyRate(mechanic.getHourlyRate());
+        entry.setRating(mechanic.getRating());
+        entry.setTotalReviews(mechanic.getTotalReviews());
+        entry.setYearsOfExperience(mechanic.getYearsOfExperience());
+        entry.setLatitude(latitude);
+        entry.setLongitude(longitude);
+        return entry;
+    }
+
+    private int latIndex(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / cellSizeDegrees);
+    }
+
+    private int lonIndex(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / cellSizeDegrees);
+    }
+
+    private static long cellKey(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+}
@@ -0,0 +1,174 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.Mechanic;
+import com.mechanicOnDemand.repository.MechanicRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of mechanic profiles, looked up by mechanic id or by user id. Concurrent misses for
+ * the same key share one query. Missing profiles are cached too, so a mechanic user without a profile
+ * does not hit the database on every request. Cached mechanics are shared between requests and must be
+ * treated as read-only; writes go through the repository and invalidate the entry.
+ */
+@Component
+public class MechanicProfileCache {
+    @Autowired
+    private MechanicRepository mechanicRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.mechanics.profile-cache.max-size}")
+    private int maxSize;
+
+    @Value("${app.mechanics.profile-cache.ttl-ms}")
+    private long ttlMs;
+
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> byUserId = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Optional<Mechanic>>> loading = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation; a load that overlapped one is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter coalesced;
+
+    @PostConstruct
+    public void init() {
+        hits = requestCounter("hit", "Profile served from the cache");
+        misses = requestCounter("miss", "Profile loaded from the database");
+        coalesced = requestCounter("coalesced", "Miss that waited for a load already in flight");
+        Gauge.builder("mechanics.profile.cache.size", byId, Map::size)
+                .description("Mechanic profiles currently cached")
+                .register(meterRegistry);
+    }
+
+    public Optional<Mechanic> getById(Long mechanicId) {
+        return get(byId, mechanicId, "id:" + mechanicId, () -> mechanicRepository.findById(mechanicId));
+    }
+
+    public Optional<Mechanic> getByUserId(Long userId) {
+        return get(byUserId, userId, "user:" + userId, () -> mechanicRepository.findByUserId(userId));
+    }
+
+    // Evicts now and again when the surrounding transaction ends, so a read in between cannot re-cache the old row
+    public void invalidate(Long mechanicId, Long userId) {
+        evict(mechanicId, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(mechanicId, userId);
+                }
+            });
+        }
+    }
+
+    private Optional<Mechanic> get(Map<Long, Entry> entries, Long key, String loadKey, Supplier<Optional<Mechanic>> loader) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            hits.increment();
+            return Optional.ofNullable(entry.mechanic());
+        }
+
+        CompletableFuture<Optional<Mechanic>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<Mechanic>> inFlight = loading.putIfAbsent(loadKey, load);
+        if (inFlight != null) {
+            coalesced.increment();
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        misses.increment();
+        try {
+            long loadedGeneration = generation.get();
+            Optional<Mechanic> mechanic = loader.get();
+            if (generation.get() == loadedGeneration) {
+                store(entries, key, mechanic.orElse(null));
+            }
+            load.complete(mechanic);
+            return mechanic;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(loadKey, load);
+        }
+    }
+
+    private void store(Map<Long, Entry> entries, Long key, Mechanic mechanic) {
+        long now = System.currentTimeMillis();
+        if (byId.size() + byUserId.size() >= maxSize) {
+            evictOverflow(now);
+        }
+        Entry entry = new Entry(mechanic, now + ttlMs);
+        if (mechanic == null) {
+            entries.put(key, entry);
+            return;
+        }
+        byId.put(mechanic.getId(), entry);
+        if (mechanic.getUser() != null) {
+            byUserId.put(mechanic.getUser().getId(), entry);
+        }
+    }
+
+    private void evict(Long mechanicId, Long userId) {
+        generation.incrementAndGet();
+        if (mechanicId != null) {
+            Entry entry = byId.remove(mechanicId);
+            // Negative entries hold no mechanic and are only ever keyed by the id they were looked up with
+            if (entry != null && entry.mechanic() != null && entry.mechanic().getUser() != null) {
+                byUserId.remove(entry.mechanic().getUser().getId(), entry);
+            }
+        }
+        if (userId != null) {
+            byUserId.remove(userId);
+        }
+    }
+
+    private void evictOverflow(long now) {
+        byId.values().removeIf(entry -> entry.expiresAt() <= now);
+        byUserId.values().removeIf(entry -> entry.expiresAt() <= now);
+        // Still full: drop an arbitrary slice of each map rather than tracking recency on the hot path
+        for (Map<Long, Entry> entries : List.of(byId, byUserId)) {
+            int toRemove = entries.size() - maxSize / 2 + Math.max(1, maxSize / 20);
+            for (Long key : entries.keySet()) {
+                if (toRemove-- <= 0) {
+                    break;
+                }
+                entries.remove(key);
+            }
+        }
+    }
+
+    private Counter requestCounter(String result, String description) {
+        return Counter.builder("mechanics.profile.cache.requests")
+                .tag("result", result)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    private record Entry(Mechanic mechanic, long expiresAt) {}
+}
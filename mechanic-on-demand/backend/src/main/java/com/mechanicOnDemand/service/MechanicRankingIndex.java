@@ -0,0 +1,321 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.Booking;
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.model.Mechanic;
+import com.mechanicOnDemand.repository.ArchivedBookingRepository;
+import com.mechanicOnDemand.repository.BookingRepository;
+import com.mechanicOnDemand.repository.MechanicRepository;
+import com.mechanicOnDemand.repository.ReviewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Ranking score for mechanic search, kept per mechanic and updated as reviews and booking outcomes arrive.
+ * The score blends a Bayesian-smoothed rating whose reviews decay exponentially with age, a smoothed
+ * completion rate and the median time to accept a job. Searchable mechanics are kept in score-ordered sets
+ * per city and per skill token, so the best K for a city or skill is read off the front of a set.
+ */
+@Component
+public class MechanicRankingIndex {
+    private static final Logger logger = LoggerFactory.getLogger(MechanicRankingIndex.class);
+    private static final double MAX_RATING = 5.0;
+    private static final List<BookingStatus> FINISHED = List.of(
+            BookingStatus.COMPLETED, BookingStatus.REJECTED, BookingStatus.EXPIRED);
+
+    @Autowired
+    private MechanicRepository mechanicRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private BookingLatencyAnalytics latencyAnalytics;
+
+    @Value("${app.ranking.prior-rating}")
+    private double priorRating;
+
+    @Value("${app.ranking.prior-reviews}")
+    private double priorReviews;
+
+    @Value("${app.ranking.review-half-life-days}")
+    private double reviewHalfLifeDays;
+
+    @Value("${app.ranking.accept-seconds-scale}")
+    private double acceptSecondsScale;
+
+    @Value("${app.ranking.weights.rating}")
+    private double ratingWeight;
+
+    @Value("${app.ranking.weights.completion}")
+    private double completionWeight;
+
+    @Value("${app.ranking.weights.accept-latency}")
+    private double acceptLatencyWeight;
+
+    private final Map<Long, Stats> stats = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Ranked>> byCity = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Ranked>> bySkill = new ConcurrentHashMap<>();
+
+    private record Ranked(double score, long mechanicId) {}
+
+    private static final Comparator<Ranked> BEST_FIRST =
+            Comparator.comparingDouble(Ranked::score).reversed().thenComparingLong(Ranked::mechanicId);
+
+    private static class Stats {
+        // Decayed as of decayedAt (epoch seconds); both halves decay at the same rate
+        double ratingSum;
+        double ratingWeight;
+        long decayedAt;
+        long completed;
+        long finished;
+        double score;
+        // Where the mechanic is listed; null city and empty skills when not searchable
+        String city;
+        Set<String> skills = Set.of();
+    }
+
+    /**
+     * Loads decayed review sums and booking outcomes for every mechanic, then ranks the searchable ones.
+     * Acceptance latency comes from {@link BookingLatencyAnalytics}, whose own rebuild may still be running;
+     * the periodic rescore picks it up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void warm() {
+        long now = nowSeconds();
+        for (Object[] row : reviewRepository.sumDecayedRatingsByMechanic(decayPerSecond())) {
+            Stats entry = stats.computeIfAbsent(((Number) row[0]).longValue(), id -> new Stats());
+            entry.ratingSum = ((Number) row[1]).doubleValue();
+            entry.ratingWeight = ((Number) row[2]).doubleValue();
+            entry.decayedAt = now;
+        }
+        List<Object[]> outcomes = new ArrayList<>(bookingRepository.countByMechanicGroupedByStatus(FINISHED));
+        outcomes.addAll(archivedBookingRepository.countByMechanicGroupedByStatus(FINISHED));
+        for (Object[] row : outcomes) {
+            Stats entry = stats.computeIfAbsent((Long) row[0], id -> new Stats());
+            long count = (Long) row[2];
+            entry.finished += count;
+            if (row[1] == BookingStatus.COMPLETED) {
+                entry.completed += count;
+            }
+        }
+        List<Mechanic> mechanics = mechanicRepository.findAllWithUserAndSkillTokens();
+        mechanics.forEach(this::index);
+        logger.info("Ranked {} mechanics across {} cities and {} skills", mechanics.size(), byCity.size(), bySkill.size());
+    }
+
+    // Picks up a mechanic's city, skills and searchability after a profile change
+    public synchronized void index(Mechanic mechanic) {
+        Stats entry = stats.computeIfAbsent(mechanic.getId(), id -> new Stats());
+        unlist(mechanic.getId(), entry);
+        boolean searchable = MechanicGeoIndex.isSearchable(mechanic);
+        entry.city = searchable ? normalizeCity(mechanic.getUser().getCity()) : null;
+        entry.skills = searchable ? MechanicSkillIndex.tokenize(mechanic.getSkills()) : Set.of();
+        entry.score = score(mechanic.getId(), entry, nowSeconds());
+        list(mechanic.getId(), entry);
+    }
+
+    public synchronized void remove(Long mechanicId) {
+        Stats entry = stats.remove(mechanicId);
+        if (entry != null) {
+            unlist(mechanicId, entry);
+        }
+    }
+
+    public void reviewAddedAfterCommit(Long mechanicId, BigDecimal rating) {
+        afterCommit(() -> reviewAdded(mechanicId, rating.doubleValue()));
+    }
+
+    // Completed, rejected and expired jobs feed the completion rate; an accept changes the latency median
+    public void bookingChangedAfterCommit(Booking booking, BookingStatus status) {
+        if (booking.getMechanic() == null) {
+            return;
+        }
+        Long mechanicId = booking.getMechanic().getId();
+        if (FINISHED.contains(status)) {
+            afterCommit(() -> bookingFinished(mechanicId, status == BookingStatus.COMPLETED));
+        } else if (status == BookingStatus.ACCEPTED) {
+            afterCommit(() -> rescore(mechanicId));
+        }
+    }
+
+    // Decay moves every score a little, so everything is re-ranked now and then even without new events
+    @Scheduled(initialDelayString = "${app.ranking.rescore-ms}", fixedDelayString = "${app.ranking.rescore-ms}")
+    public void rescoreAll() {
+        stats.keySet().forEach(this::rescore);
+    }
+
+    public List<Long> topInCity(String city, int k) {
+        List<Long> ids = new ArrayList<>(k);
+        for (Ranked ranked : byCity.getOrDefault(normalizeCity(city), Collections.emptyNavigableSet())) {
+            if (ids.size() == k) {
+                break;
+            }
+            ids.add(ranked.mechanicId());
+        }
+        return ids;
+    }
+
+    // Best K with the skill token, optionally only those in the given city
+    public List<Long> topWithSkill(String skill, String city, int k) {
+        String cityKey = city != null ? normalizeCity(city) : null;
+        List<Long> ids = new ArrayList<>(k);
+        for (Ranked ranked : bySkill.getOrDefault(skill, Collections.emptyNavigableSet())) {
+            if (ids.size() == k) {
+                break;
+            }
+            Stats entry = stats.get(ranked.mechanicId());
+            if (cityKey == null || (entry != null && cityKey.equals(entry.city))) {
+                ids.add(ranked.mechanicId());
+            }
+        }
+        return ids;
+    }
+
+    // Orders an arbitrary candidate set best first, for searches no precomputed set covers
+    public List<Long> rank(Collection<Long> mechanicIds) {
+        return mechanicIds.stream()
+                .sorted(Comparator.comparingDouble(this::scoreOf).reversed().thenComparing(Comparator.naturalOrder()))
+                .toList();
+    }
+
+    public double scoreOf(Long mechanicId) {
+        Stats entry = stats.get(mechanicId);
+        return entry != null ? entry.score : 0.0;
+    }
+
+    private synchronized void reviewAdded(Long mechanicId, double rating) {
+        Stats entry = stats.computeIfAbsent(mechanicId, id -> new Stats());
+        long now = nowSeconds();
+        decay(entry, now);
+        entry.ratingSum += rating;
+        entry.ratingWeight += 1.0;
+        reposition(mechanicId, entry, now);
+    }
+
+    private synchronized void bookingFinished(Long mechanicId, boolean completed) {
+        Stats entry = stats.computeIfAbsent(mechanicId, id -> new Stats());
+        entry.finished++;
+        if (completed) {
+            entry.completed++;
+        }
+        reposition(mechanicId, entry, nowSeconds());
+    }
+
+    private synchronized void rescore(Long mechanicId) {
+        Stats entry = stats.get(mechanicId);
+        if (entry != null) {
+            reposition(mechanicId, entry, nowSeconds());
+        }
+    }
+
+    private void reposition(Long mechanicId, Stats entry, long now) {
+        unlist(mechanicId, entry);
+        entry.score = score(mechanicId, entry, now);
+        list(mechanicId, entry);
+    }
+
+    private double score(Long mechanicId, Stats entry, long now) {
+        decay(entry, now);
+        double rating = (priorRating * priorReviews + entry.ratingSum) / (priorReviews + entry.ratingWeight) / MAX_RATING;
+        // Laplace smoothing keeps a mechanic with one finished job from scoring 0 or 1
+        double completion = (entry.completed + 1.0) / (entry.finished + 2.0);
+        Long medianAcceptSeconds = latencyAnalytics.percentile(BookingLatencyAnalytics.Metric.ACCEPT, mechanicId, 0.5);
+        double acceptLatency = medianAcceptSeconds != null
+                ? acceptSecondsScale / (acceptSecondsScale + medianAcceptSeconds) : 0.5;
+        return ratingWeight * rating + completionWeight * completion + acceptLatencyWeight * acceptLatency;
+    }
+
+    private void decay(Stats entry, long now) {
+        if (entry.decayedAt != 0 && now > entry.decayedAt) {
+            double factor = Math.exp(-decayPerSecond() * (now - entry.decayedAt));
+            entry.ratingSum *= factor;
+            entry.ratingWeight *= factor;
+        }
+        entry.decayedAt = now;
+    }
+
+    private void list(Long mechanicId, Stats entry) {
+        Ranked ranked = new Ranked(entry.score, mechanicId);
+        if (entry.city != null) {
+            byCity.computeIfAbsent(entry.city, key -> new ConcurrentSkipListSet<>(BEST_FIRST)).add(ranked);
+        }
+        for (String skill : entry.skills) {
+            bySkill.computeIfAbsent(skill, key -> new ConcurrentSkipListSet<>(BEST_FIRST)).add(ranked);
+        }
+    }
+
+    private void unlist(Long mechanicId, Stats entry) {
+        Ranked ranked = new Ranked(entry.score, mechanicId);
+        if (entry.city != null) {
+            removeFrom(byCity, entry.city, ranked);
+        }
+        for (String skill : entry.skills) {
+            removeFrom(bySkill, skill, ranked);
+        }
+    }
+
+    private static void removeFrom(Map<String, NavigableSet<Ranked>> sets, String key, Ranked ranked) {
+        NavigableSet<Ranked> set = sets.get(key);
+        if (set != null) {
+            set.remove(ranked);
+            if (set.isEmpty()) {
+                sets.remove(key);
+            }
+        }
+    }
+
+    private double decayPerSecond() {
+        return Math.log(2) / (reviewHalfLifeDays * 86400);
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static String normalizeCity(String city) {
+        return city != null ? city.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,254 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.Booking;
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time slots of each mechanic's ACCEPTED and IN_PROGRESS bookings, sorted by start. Reservations
+ * are checked and inserted under the mechanic's lock, so accepted slots never overlap and a free-at
+ * check only has to look at the one slot starting just before the requested end. Overlapping bookings
+ * accepted before reservations were checked are merged into one shared slot when the index is warmed.
+ */
+@Component
+public class MechanicScheduleIndex {
+    private static final Logger logger = LoggerFactory.getLogger(MechanicScheduleIndex.class);
+    private static final List<BookingStatus> SCHEDULED = List.of(BookingStatus.ACCEPTED, BookingStatus.IN_PROGRESS);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${app.schedule.default-duration-minutes}")
+    private int defaultDurationMinutes;
+
+    private final Map<Long, NavigableSet<Slot>> schedules = new ConcurrentHashMap<>();
+    private final Map<Long, Slot> slotByBooking = new ConcurrentHashMap<>();
+
+    // Bookings holding a merged slot; the slot stays until the last of them is released
+    private final Map<Slot, Set<Long>> sharedSlots = new ConcurrentHashMap<>();
+
+    public record Slot(Long bookingId, Long mechanicId, LocalDateTime start, LocalDateTime end) {}
+
+    private static final Comparator<Slot> BY_START = Comparator.comparing(Slot::start).thenComparing(Slot::bookingId);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        LocalDateTime horizon = LocalDateTime.now().minusDays(1);
+        Map<Long, List<Slot>> slotsByMechanic = new HashMap<>();
+        for (Booking booking : bookingRepository.findScheduledBookings(SCHEDULED)) {
+            Slot slot = slotOf(booking, booking.getMechanic().getId());
+            // Stale slots can never clash with a new booking, so they are not worth the memory
+            if (slot.end().isAfter(horizon)) {
+                slotsByMechanic.computeIfAbsent(slot.mechanicId(), id -> new ArrayList<>()).add(slot);
+            }
+        }
+
+        int indexed = 0;
+        int merged = 0;
+        for (List<Slot> slots : slotsByMechanic.values()) {
+            slots.sort(BY_START);
+            List<Slot> group = new ArrayList<>();
+            LocalDateTime groupEnd = null;
+            for (Slot slot : slots) {
+                if (groupEnd != null && !slot.start().isBefore(groupEnd)) {
+                    merged += install(group);
+                    group = new ArrayList<>();
+                }
+                groupEnd = group.isEmpty() || slot.end().isAfter(groupEnd) ? slot.end() : groupEnd;
+                group.add(slot);
+            }
+            merged += install(group);
+            indexed += slots.size();
+        }
+        logger.info("Indexed {} scheduled bookings", indexed);
+        if (merged > 0) {
+            logger.warn("{} scheduled bookings overlapped another booking of the same mechanic and share merged slots", merged);
+        }
+    }
+
+    // Puts a run of overlapping slots in as one slot covering all of them; returns how many were merged
+    private int install(List<Slot> group) {
+        if (group.size() == 1) {
+            put(group.get(0));
+            return 0;
+        }
+        Slot first = group.get(0);
+        LocalDateTime end = group.stream().map(Slot::end).max(Comparator.naturalOrder()).orElseThrow();
+        // Keyed by a negative id so it never collides with a slot a member booking puts in later
+        Slot shared = new Slot(-first.bookingId(), first.mechanicId(), first.start(), end);
+        Set<Long> bookingIds = ConcurrentHashMap.newKeySet();
+        group.forEach(slot -> bookingIds.add(slot.bookingId()));
+        logger.warn("Mechanic {} has overlapping bookings {}, holding {} to {} for all of them",
+                first.mechanicId(), bookingIds, shared.start(), shared.end());
+
+        NavigableSet<Slot> schedule = schedules.computeIfAbsent(first.mechanicId(), id -> new TreeSet<>(BY_START));
+        synchronized (schedule) {
+            sharedSlots.put(shared, bookingIds);
+            bookingIds.forEach(bookingId -> slotByBooking.put(bookingId, shared));
+            schedule.add(shared);
+        }
+        return group.size();
+    }
+
+    public LocalDateTime startOf(Booking booking) {
+        if (booking.getPreferredDateTime() != null) {
+            return booking.getPreferredDateTime();
+        }
+        return booking.getAcceptedAt() != null ? booking.getAcceptedAt() : LocalDateTime.now();
+    }
+
+    public Duration durationOf(Booking booking) {
+        Integer minutes = booking.getEstimatedDurationMinutes();
+        return Duration.ofMinutes(minutes != null ? minutes : defaultDurationMinutes);
+    }
+
+    public boolean isFree(Long mechanicId, LocalDateTime start, Duration duration) {
+        NavigableSet<Slot> schedule = schedules.get(mechanicId);
+        if (schedule == null) {
+            return true;
+        }
+        synchronized (schedule) {
+            return clash(schedule, start, start.plus(duration), null) == null;
+        }
+    }
+
+    // Earliest start at or after from where the mechanic is free for the whole duration
+    public LocalDateTime nextFreeSlot(Long mechanicId, LocalDateTime from, Duration duration) {
+        NavigableSet<Slot> schedule = schedules.get(mechanicId);
+        if (schedule == null) {
+            return from;
+        }
+        synchronized (schedule) {
+            LocalDateTime candidate = from;
+            Slot before = schedule.lower(probe(from));
+            if (before != null && before.end().isAfter(candidate)) {
+                candidate = before.end();
+            }
+            for (Slot slot : schedule.tailSet(probe(from), true)) {
+                if (!slot.start().isBefore(candidate.plus(duration))) {
+                    break;
+                }
+                if (slot.end().isAfter(candidate)) {
+                    candidate = slot.end();
+                }
+            }
+            return candidate;
+        }
+    }
+
+    /**
+     * Books the slot for the booking's mechanic, or throws if it overlaps another booking. Inside a
+     * transaction the slot is released again if the transaction rolls back.
+     */
+    public void reserve(Booking booking, Long mechanicId) {
+        Slot slot = slotOf(booking, mechanicId);
+        NavigableSet<Slot> schedule = schedules.computeIfAbsent(mechanicId, id -> new TreeSet<>(BY_START));
+        synchronized (schedule) {
+            Slot existing = clash(schedule, slot.start(), slot.end(), booking.getId());
+            if (existing != null) {
+                throw new BookingConflictException("Mechanic is already booked from " + existing.start() + " to "
+                        + existing.end() + ", next free slot starts " + nextFreeSlot(mechanicId, slot.start(), durationOf(booking)));
+            }
+            put(slot);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(slot.bookingId());
+                    }
+                }
+            });
+        }
+    }
+
+    // Frees the booking's slot, after commit when inside a transaction
+    public void release(Long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(bookingId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(bookingId);
+            }
+        });
+    }
+
+    private void put(Slot slot) {
+        NavigableSet<Slot> schedule = schedules.computeIfAbsent(slot.mechanicId(), id -> new TreeSet<>(BY_START));
+        synchronized (schedule) {
+            Slot previous = slotByBooking.put(slot.bookingId(), slot);
+            if (previous != null) {
+                unlink(previous, slot.bookingId());
+            }
+            schedule.add(slot);
+        }
+    }
+
+    private void remove(Long bookingId) {
+        Slot slot = slotByBooking.remove(bookingId);
+        if (slot != null) {
+            unlink(slot, bookingId);
+        }
+    }
+
+    private void unlink(Slot slot, Long bookingId) {
+        NavigableSet<Slot> schedule = schedules.get(slot.mechanicId());
+        if (schedule == null) {
+            return;
+        }
+        synchronized (schedule) {
+            Set<Long> holders = sharedSlots.get(slot);
+            if (holders != null) {
+                holders.remove(bookingId);
+                if (!holders.isEmpty()) {
+                    return;
+                }
+                sharedSlots.remove(slot);
+            }
+            schedule.remove(slot);
+        }
+    }
+
+    // Slots never overlap, so only the last one starting before end can reach past start
+    private static Slot clash(NavigableSet<Slot> schedule, LocalDateTime start, LocalDateTime end, Long ignoreBookingId) {
+        Slot candidate = schedule.lower(probe(end));
+        while (candidate != null && candidate.bookingId().equals(ignoreBookingId)) {
+            candidate = schedule.lower(candidate);
+        }
+        return candidate != null && candidate.end().isAfter(start) ? candidate : null;
+    }
+
+    private static Slot probe(LocalDateTime time) {
+        return new Slot(Long.MIN_VALUE, null, time, time);
+    }
+
+    private Slot slotOf(Booking booking, Long mechanicId) {
+        LocalDateTime start = startOf(booking);
+        return new Slot(booking.getId(), mechanicId, start, start.plus(durationOf(booking)));
+    }
+}
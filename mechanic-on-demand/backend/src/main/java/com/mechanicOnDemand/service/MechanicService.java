@@ -1,15 +1,32 @@
 package com.mechanicOnDemand.service;
 
+import com.mechanicOnDemand.dto.MechanicListItem;
 import com.mechanicOnDemand.dto.MechanicProfileRequest;
+import com.mechanicOnDemand.dto.NearbyMechanicResponse;
 import com.mechanicOnDemand.model.Mechanic;
 import com.mechanicOnDemand.model.User;
 import com.mechanicOnDemand.repository.MechanicRepository;
 import com.mechanicOnDemand.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class MechanicService {
@@ -19,34 +36,133 @@ public class MechanicService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MechanicGeoIndex geoIndex;
+
+    @Autowired
+    private MechanicSkillIndex skillIndex;
+
+    @Autowired
+    private MechanicRankingIndex rankingIndex;
+
+    @Autowired
+    private MechanicProfileCache profileCache;
+
+    @Autowired
+    private PincodeDirectory pincodeDirectory;
+
+    @Autowired
+    private MechanicScheduleIndex scheduleIndex;
+
+    @Autowired
+    private DashboardCounterRegistry dashboardCounters;
+
+    @Value("${app.geo.max-radius-km}")
+    private double maxRadiusKm;
+
+    @Value("${app.geo.max-results}")
+    private int maxResults;
+
     public List<Mechanic> getAllMechanics() {
         return mechanicRepository.findAll();
     }
 
+    public Slice<MechanicListItem> getMechanicListItems(Boolean verified, Boolean available, Pageable pageable) {
+        return mechanicRepository.findListItems(verified, available, pageable);
+    }
+
     public List<Mechanic> getAvailableMechanics() {
         return mechanicRepository.findByIsAvailable(true);
     }
 
+    // Best ranked first, straight from the ranking index's per-city order
     public List<Mechanic> getMechanicsByCity(String city) {
-        return mechanicRepository.findAvailableMechanicsByCity(city);
+        return loadInOrder(rankingIndex.topInCity(city, maxResults));
     }
 
     public List<Mechanic> getMechanicsByPincode(String pincode) {
         return mechanicRepository.findAvailableMechanicsByPincode(pincode);
     }
 
+    public List<NearbyMechanicResponse> getNearbyMechanics(double latitude, double longitude, double radiusKm, int k) {
+        return geoIndex.nearest(latitude, longitude, Math.min(radiusKm, maxRadiusKm), Math.max(1, Math.min(k, maxResults)));
+    }
+
+    public List<NearbyMechanicResponse> getNearbyMechanics(String pincode, double radiusKm, int k) {
+        double[] centroid = pincodeDirectory.centroidOf(pincode)
+                .orElseThrow(() -> new RuntimeException("Unknown pincode: " + pincode));
+        return getNearbyMechanics(centroid[0], centroid[1], radiusKm, k);
+    }
+
+    // Nearest mechanics with no accepted booking overlapping [freeAt, freeAt + duration)
+    public List<NearbyMechanicResponse> getNearbyFreeMechanics(double latitude, double longitude, double radiusKm, int k,
+                                                               LocalDateTime freeAt, Duration duration) {
+        return geoIndex.nearest(latitude, longitude, Math.min(radiusKm, maxRadiusKm), maxResults).stream()
+                .filter(mechanic -> scheduleIndex.isFree(mechanic.getMechanicId(), freeAt, duration))
+                .limit(Math.max(1, Math.min(k, maxResults)))
+                .toList();
+    }
+
+    public List<NearbyMechanicResponse> getNearbyFreeMechanics(String pincode, double radiusKm, int k,
+                                                               LocalDateTime freeAt, Duration duration) {
+        double[] centroid = pincodeDirectory.centroidOf(pincode)
+                .orElseThrow(() -> new RuntimeException("Unknown pincode: " + pincode));
+        return getNearbyFreeMechanics(centroid[0], centroid[1], radiusKm, k, freeAt, duration);
+    }
+
+    public List<Mechanic> filterFree(List<Mechanic> mechanics, LocalDateTime freeAt, Duration duration) {
+        return mechanics.stream()
+                .filter(mechanic -> scheduleIndex.isFree(mechanic.getId(), freeAt, duration))
+                .toList();
+    }
+
+    public LocalDateTime getNextFreeSlot(Long mechanicId, LocalDateTime from, Duration duration) {
+        return scheduleIndex.nextFreeSlot(mechanicId, from, duration);
+    }
+
     public List<Mechanic> searchMechanicsBySkill(String skill) {
-        return mechanicRepository.findBySkillsContaining(skill);
+        return searchMechanicsBySkills(List.of(skill), true, null, null);
+    }
+
+    public List<Mechanic> searchMechanicsBySkills(List<String> skills, boolean matchAll, String city, String pincode) {
+        Set<String> tokens = skills.size() == 1 ? MechanicSkillIndex.tokenize(skills.get(0)) : Set.of();
+        if (tokens.size() == 1 && pincode == null) {
+            // A single skill is already kept in rank order
+            return loadInOrder(rankingIndex.topWithSkill(tokens.iterator().next(), city, maxResults));
+        }
+
+        long[] ids = skillIndex.search(skills, matchAll);
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Long> mechanicIds = Arrays.stream(ids).boxed().toList();
+        List<Mechanic> mechanics = city != null || pincode != null
+                ? mechanicRepository.findAvailableMechanicsByIdInAndCityOrPincode(mechanicIds, city, pincode)
+                : mechanicRepository.findAvailableMechanicsByIdIn(mechanicIds);
+        return mechanics.stream()
+                .sorted(Comparator.comparingDouble((Mechanic mechanic) -> rankingIndex.scoreOf(mechanic.getId())).reversed())
+                .toList();
+    }
+
+    private List<Mechanic> loadInOrder(List<Long> mechanicIds) {
+        if (mechanicIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Mechanic> byId = mechanicRepository.findAvailableMechanicsByIdIn(mechanicIds).stream()
+                .collect(Collectors.toMap(Mechanic::getId, Function.identity()));
+        return mechanicIds.stream().map(byId::get).filter(Objects::nonNull).toList();
     }
 
+    // Served from the profile cache; treat the result as read-only
     public Optional<Mechanic> getMechanicById(Long id) {
-        return mechanicRepository.findById(id);
+        return profileCache.getById(id);
     }
 
     public Optional<Mechanic> getMechanicByUserId(Long userId) {
-        return mechanicRepository.findByUserId(userId);
+        return profileCache.getByUserId(userId);
     }
 
+    @Transactional
     public Mechanic createMechanicProfile(Long userId, MechanicProfileRequest request) {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) {
@@ -63,8 +179,11 @@ public class MechanicService {
             mechanic = new Mechanic();
             mechanic.setUser(user);
         }
+        Boolean wasVerified = existingMechanic.map(Mechanic::getIsVerified).orElse(null);
+        Boolean wasAvailable = existingMechanic.map(Mechanic::getIsAvailable).orElse(null);
 
         mechanic.setSkills(request.getSkills());
+        mechanic.setSkillTokens(MechanicSkillIndex.tokenize(request.getSkills()));
         mechanic.setDescription(request.getDescription());
         mechanic.setHourlyRate(request.getHourlyRate());
         mechanic.setYearsOfExperience(request.getYearsOfExperience());
@@ -72,10 +191,15 @@ public class MechanicService {
         if (request.getIsAvailable() != null) {
             mechanic.setIsAvailable(request.getIsAvailable());
         }
+        updateLocation(user, request);
 
-        return mechanicRepository.save(mechanic);
+        Mechanic savedMechanic = mechanicRepository.save(mechanic);
+        dashboardCounters.mechanicChanged(wasVerified, wasAvailable, savedMechanic.getIsVerified(), savedMechanic.getIsAvailable());
+        refreshIndexes(savedMechanic);
+        return savedMechanic;
     }
 
+    @Transactional
     public Mechanic updateMechanicProfile(Long mechanicId, MechanicProfileRequest request) {
         Optional<Mechanic> mechanicOpt = mechanicRepository.findById(mechanicId);
         if (mechanicOpt.isEmpty()) {
@@ -83,8 +207,10 @@ public class MechanicService {
         }
 
         Mechanic mechanic = mechanicOpt.get();
+        Boolean wasAvailable = mechanic.getIsAvailable();
         if (request.getSkills() != null) {
             mechanic.setSkills(request.getSkills());
+            mechanic.setSkillTokens(MechanicSkillIndex.tokenize(request.getSkills()));
         }
         if (request.getDescription() != null) {
             mechanic.setDescription(request.getDescription());
@@ -101,20 +227,82 @@ public class MechanicService {
         if (request.getIsAvailable() != null) {
             mechanic.setIsAvailable(request.getIsAvailable());
         }
+        updateLocation(mechanic.getUser(), request);
 
-        return mechanicRepository.save(mechanic);
+        Mechanic savedMechanic = mechanicRepository.save(mechanic);
+        dashboardCounters.mechanicChanged(mechanic.getIsVerified(), wasAvailable, mechanic.getIsVerified(), savedMechanic.getIsAvailable());
+        refreshIndexes(savedMechanic);
+        return savedMechanic;
     }
 
     public void verifyMechanic(Long mechanicId) {
         Optional<Mechanic> mechanicOpt = mechanicRepository.findById(mechanicId);
         if (mechanicOpt.isPresent()) {
             Mechanic mechanic = mechanicOpt.get();
+            Boolean wasVerified = mechanic.getIsVerified();
             mechanic.setIsVerified(true);
-            mechanicRepository.save(mechanic);
+            Mechanic savedMechanic = mechanicRepository.save(mechanic);
+            dashboardCounters.mechanicChanged(wasVerified, savedMechanic.getIsAvailable(), true, savedMechanic.getIsAvailable());
+            refreshIndexes(savedMechanic);
         }
     }
 
     public void deleteMechanic(Long mechanicId) {
+        Optional<Mechanic> mechanicOpt = mechanicRepository.findById(mechanicId);
         mechanicRepository.deleteById(mechanicId);
+        mechanicOpt.ifPresent(mechanic ->
+                dashboardCounters.mechanicChanged(mechanic.getIsVerified(), mechanic.getIsAvailable(), null, null));
+        removeFromIndexes(mechanicId, mechanicOpt.map(mechanic -> mechanic.getUser().getId()).orElse(null));
+    }
+
+    // A deactivated mechanic drops out of search and a reactivated one comes back
+    public void userActivationChanged(Long userId) {
+        mechanicRepository.findByUserId(userId).ifPresent(this::refreshIndexes);
+    }
+
+    public void removeFromIndexes(Long mechanicId, Long userId) {
+        geoIndex.remove(mechanicId);
+        skillIndex.remove(mechanicId);
+        rankingIndex.remove(mechanicId);
+        profileCache.invalidate(mechanicId, userId);
+    }
+
+    // Cached profiles and the geo index's search results both carry the rating
+    public void ratingsChanged(List<Long> mechanicIds) {
+        for (Mechanic mechanic : mechanicRepository.findAllById(mechanicIds)) {
+            profileCache.invalidate(mechanic.getId(), mechanic.getUser().getId());
+            afterCommit(() -> geoIndex.index(mechanic));
+        }
+    }
+
+    // The search indexes only ever see committed profiles, so a rolled back write leaves them untouched
+    private void refreshIndexes(Mechanic mechanic) {
+        profileCache.invalidate(mechanic.getId(), mechanic.getUser().getId());
+        afterCommit(() -> {
+            geoIndex.index(mechanic);
+            skillIndex.index(mechanic);
+            rankingIndex.index(mechanic);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void updateLocation(User user, MechanicProfileRequest request) {
+        if (request.getLatitude() != null && request.getLongitude() != null) {
+            user.setLatitude(request.getLatitude());
+            user.setLongitude(request.getLongitude());
+            userRepository.save(user);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.Mechanic;
+import com.mechanicOnDemand.repository.MechanicRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from normalized skill token to the sorted ids of searchable mechanics that list it.
+ * Posting arrays are copy-on-write, so queries run lock-free against a consistent snapshot per token.
+ */
+@Component
+public class MechanicSkillIndex {
+    private static final Logger logger = LoggerFactory.getLogger(MechanicSkillIndex.class);
+    private static final long[] EMPTY = new long[0];
+    private static final Set<String> STOP_WORDS = Set.of("and", "or", "the", "of", "for", "in", "on", "with");
+    private static final int MAX_TOKEN_LENGTH = 50;
+
+    @Autowired
+    private MechanicRepository mechanicRepository;
+
+    private final Map<String, long[]> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> tokensByMechanic = new ConcurrentHashMap<>();
+
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new TreeSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= 2 && !STOP_WORDS.contains(token)) {
+                tokens.add(token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token);
+            }
+        }
+        return tokens;
+    }
+
+    // Also backfills the mechanic_skills association for rows written before it existed
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void warm() {
+        int backfilled = 0;
+        for (Mechanic mechanic : mechanicRepository.findAllWithUserAndSkillTokens()) {
+            Set<String> tokens = tokenize(mechanic.getSkills());
+            if (!tokens.equals(mechanic.getSkillTokens())) {
+                mechanic.getSkillTokens().clear();
+                mechanic.getSkillTokens().addAll(tokens);
+                backfilled++;
+            }
+            index(mechanic);
+        }
+        logger.info("Indexed {} mechanics under {} skill tokens ({} backfilled)",
+                tokensByMechanic.size(), postings.size(), backfilled);
+    }
+
+    public synchronized void index(Mechanic mechanic) {
+        Set<String> previous = tokensByMechanic.getOrDefault(mechanic.getId(), Set.of());
+        Set<String> current = MechanicGeoIndex.isSearchable(mechanic) ? tokenize(mechanic.getSkills()) : Set.of();
+
+        for (String token : previous) {
+            if (!current.contains(token)) {
+                removePosting(token, mechanic.getId());
+            }
+        }
+        for (String token : current) {
+            if (!previous.contains(token)) {
+                addPosting(token, mechanic.getId());
+            }
+        }
+
+        if (current.isEmpty()) {
+            tokensByMechanic.remove(mechanic.getId());
+        } else {
+            tokensByMechanic.put(mechanic.getId(), current);
+        }
+    }
+
+    public synchronized void remove(Long mechanicId) {
+        Set<String> previous = tokensByMechanic.remove(mechanicId);
+        if (previous != null) {
+            previous.forEach(token -> removePosting(token, mechanicId));
+        }
+    }
+
+    /**
+     * Each phrase matches mechanics having every token in it; phrases are then combined with AND
+     * ({@code matchAll}) or OR. Returns ascending mechanic ids.
+     */
+    public long[] search(Collection<String> phrases, boolean matchAll) {
+        List<long[]> phraseMatches = new ArrayList<>();
+        for (String phrase : phrases) {
+            Set<String> tokens = tokenize(phrase);
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            List<long[]> lists = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                lists.add(postings.getOrDefault(token, EMPTY));
+            }
+            phraseMatches.add(intersectAll(lists));
+        }
+        if (phraseMatches.isEmpty()) {
+            return EMPTY;
+        }
+        return matchAll ? intersectAll(phraseMatches) : unionAll(phraseMatches);
+    }
+
+    private static long[] intersectAll(List<long[]> lists) {
+        // Start from the shortest list so every step shrinks the candidate set as fast as possible
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        long[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private static long[] intersect(long[] small, long[] large) {
+        long[] out = new long[small.length];
+        int count = 0;
+        int from = 0;
+        for (long id : small) {
+            int found = Arrays.binarySearch(large, from, large.length, id);
+            if (found >= 0) {
+                out[count++] = id;
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+            if (from >= large.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    private static long[] unionAll(List<long[]> lists) {
+        long[] result = EMPTY;
+        for (long[] list : lists) {
+            result = union(result, list);
+        }
+        return result;
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        long[] out = new long[a.length + b.length];
+        int i = 0, j = 0, count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                out[count++] = a[i++];
+            } else if (a[i] > b[j]) {
+                out[count++] = b[j++];
+            } else {
+                out[count++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            out[count++] = a[i++];
+        }
+        while (j < b.length) {
+            out[count++] = b[j++];
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    private void addPosting(String token, long mechanicId) {
+        long[] current = postings.getOrDefault(token, EMPTY);
+        int position = Arrays.binarySearch(current, mechanicId);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        long[] updated = new long[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, insertAt);
+        updated[insertAt] = mechanicId;
+        System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+        postings.put(token, updated);
+    }
+
+    private void removePosting(String token, long mechanicId) {
+        long[] current = postings.get(token);
+        if (current == null) {
+            return;
+        }
+        int position = Arrays.binarySearch(current, mechanicId);
+        if (position < 0) {
+            return;
+        }
+        if (current.length == 1) {
+            postings.remove(token);
+            return;
+        }
+        long[] updated = new long[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, position);
+        System.arraycopy(current, position + 1, updated, position, current.length - position - 1);
+        postings.put(token, updated);
+    }
+}
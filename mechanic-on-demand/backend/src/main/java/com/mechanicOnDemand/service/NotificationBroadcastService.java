@@ -0,0 +1,153 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.dto.BroadcastRequest;
+import com.mechanicOnDemand.model.NotificationType;
+import com.mechanicOnDemand.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists a SYSTEM_NOTIFICATION for every active user in a segment on a background thread. Recipients
+ * are read as keyset-paged id chunks and each chunk is inserted in its own transaction, so memory use
+ * stays flat however large the segment is; connected clients get a single topic message at the end.
+ */
+@Service
+public class NotificationBroadcastService {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationBroadcastService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UnreadCountCache unreadCountCache;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Value("${app.broadcast.chunk-size}")
+    private int chunkSize;
+
+    @Value("${app.broadcast.max-tracked}")
+    private int maxTracked;
+
+    private final AtomicLong nextId = new AtomicLong();
+
+    private final Map<Long, Broadcast> broadcasts = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Broadcast> eldest) {
+            return size() > maxTracked;
+        }
+    };
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "notification-broadcast");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    public static final class Broadcast {
+        private final Long id;
+        private final String title;
+        private final Map<String, Object> segment;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicLong recipients = new AtomicLong();
+        private volatile State state = State.QUEUED;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Broadcast(Long id, String title, Map<String, Object> segment) {
+            this.id = id;
+            this.title = title;
+            this.segment = segment;
+        }
+
+        public Long getId() { return id; }
+        public String getTitle() { return title; }
+        public Map<String, Object> getSegment() { return segment; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public long getRecipients() { return recipients.get(); }
+        public State getState() { return state; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+        public String getError() { return error; }
+    }
+
+    public Broadcast start(BroadcastRequest request) {
+        Map<String, Object> segment = new LinkedHashMap<>();
+        segment.put("role", request.getRole());
+        segment.put("city", blankToNull(request.getCity()));
+        segment.put("pincode", blankToNull(request.getPincode()));
+
+        Broadcast broadcast = new Broadcast(nextId.incrementAndGet(), request.getTitle(), segment);
+        synchronized (broadcasts) {
+            broadcasts.put(broadcast.getId(), broadcast);
+        }
+        executor.execute(() -> run(broadcast, request));
+        return broadcast;
+    }
+
+    public Optional<Broadcast> getBroadcast(Long id) {
+        synchronized (broadcasts) {
+            return Optional.ofNullable(broadcasts.get(id));
+        }
+    }
+
+    private void run(Broadcast broadcast, BroadcastRequest request) {
+        broadcast.state = State.RUNNING;
+        String city = blankToNull(request.getCity());
+        String pincode = blankToNull(request.getPincode());
+        try {
+            long afterId = 0;
+            List<Long> userIds;
+            do {
+                userIds = userRepository.findActiveUserIdsInSegment(request.getRole(), city, pincode, afterId,
+                        PageRequest.of(0, chunkSize));
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                notificationService.saveNotifications(userIds, request.getTitle(), request.getMessage(),
+                        NotificationType.SYSTEM_NOTIFICATION);
+                userIds.forEach(userId -> unreadCountCache.increment(userId, 1));
+                broadcast.recipients.addAndGet(userIds.size());
+                afterId = userIds.get(userIds.size() - 1);
+            } while (userIds.size() == chunkSize);
+
+            webSocketService.broadcastSegmentNotification(request.getTitle(), request.getMessage(), broadcast.getSegment());
+            broadcast.state = State.COMPLETED;
+        } catch (Exception e) {
+            // Chunks already committed stay delivered; the count shows how far it got
+            logger.error("Broadcast {} failed after {} recipients: {}", broadcast.getId(), broadcast.getRecipients(), e.getMessage());
+            broadcast.error = e.getMessage();
+            broadcast.state = State.FAILED;
+        } finally {
+            broadcast.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -4,8 +4,11 @@ import com.mechanicOnDemand.model.Notification;
 import com.mechanicOnDemand.model.NotificationType;
 import com.mechanicOnDemand.model.User;
 import com.mechanicOnDemand.repository.NotificationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,53 +22,78 @@ public class NotificationService {
     @Autowired
     private WebSocketService webSocketService;
 
+    @Autowired
+    private UnreadCountCache unreadCountCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<Notification> getNotificationsByUser(Long userId) {
         return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
     }
 
     public List<Notification> getUnreadNotificationsByUser(Long userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId)
-                .stream()
-                .filter(notification -> !notification.getIsRead())
-                .toList();
+        return notificationRepository.findUnreadByUserIdOrderByCreatedAtDesc(userId);
     }
 
     public Long getUnreadNotificationCount(Long userId) {
-        return notificationRepository.countUnreadNotificationsByUser(userId);
+        return unreadCountCache.get(userId);
     }
 
     public Notification createNotification(User user, String title, String message, NotificationType type) {
-        Notification notification = new Notification(user, title, message, type);
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = saveNotification(user, title, message, type);
+        publishNotification(user.getId(), user.getUsername(), savedNotification);
+        return savedNotification;
+    }
+
+    // Persists only; callers inside a transaction publish once it has committed
+    public Notification saveNotification(User user, String title, String message, NotificationType type) {
+        return notificationRepository.save(new Notification(user, title, message, type));
+    }
+
+    /**
+     * Inserts one notification per user without loading the users. Flushed and cleared at the end
+     * so the pooled ids let Hibernate batch the INSERTs and the chunk does not stay in memory.
+     */
+    @Transactional
+    public void saveNotifications(List<Long> userIds, String title, String message, NotificationType type) {
+        for (Long userId : userIds) {
+            entityManager.persist(new Notification(entityManager.getReference(User.class, userId), title, message, type));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    public void publishNotification(Long userId, String username, Notification notification) {
+        unreadCountCache.increment(userId, 1);
         
         // Send real-time notification via WebSocket
-        webSocketService.sendNotificationToUser(user.getUsername(), savedNotification);
-        
-        return savedNotification;
+        webSocketService.sendNotificationToUser(username, notification);
     }
 
+    @Transactional
     public void markAsRead(Long notificationId) {
-        Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
-        if (notificationOpt.isPresent()) {
-            Notification notification = notificationOpt.get();
-            notification.setIsRead(true);
-            notification.setReadAt(LocalDateTime.now());
-            notificationRepository.save(notification);
+        Optional<Long> ownerId = notificationRepository.findOwnerIdIfUnread(notificationId);
+        if (ownerId.isPresent() && notificationRepository.markAsReadIfUnread(notificationId, LocalDateTime.now()) > 0) {
+            unreadCountCache.decrement(ownerId.get(), 1);
         }
     }
 
+    @Transactional
     public void markAllAsRead(Long userId) {
-        List<Notification> notifications = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        for (Notification notification : notifications) {
-            if (!notification.getIsRead()) {
-                notification.setIsRead(true);
-                notification.setReadAt(LocalDateTime.now());
-                notificationRepository.save(notification);
-            }
-        }
+        int updated = notificationRepository.markAllAsReadByUser(userId, LocalDateTime.now());
+        unreadCountCache.decrement(userId, updated);
     }
 
+    @Transactional
     public void deleteNotification(Long notificationId) {
-        notificationRepository.deleteById(notificationId);
+        Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
+        if (notificationOpt.isPresent()) {
+            Notification notification = notificationOpt.get();
+            notificationRepository.delete(notification);
+            if (!Boolean.TRUE.equals(notification.getIsRead())) {
+                unreadCountCache.decrement(notification.getUser().getId(), 1);
+            }
+        }
     }
-}
\ No newline at end of file
+}
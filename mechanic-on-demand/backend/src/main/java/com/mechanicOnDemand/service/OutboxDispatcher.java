@@ -0,0 +1,137 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.Notification;
+import com.mechanicOnDemand.model.OutboxEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Drains the outbox on a single background thread, off the request path. Only the node holding the lease
+// drains, so each recipient's events are delivered by one node in id order.
+@Component
+public class OutboxDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    static final String LEASE_NAME = "outbox-dispatcher";
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Value("${app.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${app.outbox.lease-ms}")
+    private long leaseMs;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEnqueued(OutboxService.Enqueued event) {
+        requestDrain();
+    }
+
+    // Picks up retries, anything enqueued while the node was down and, on the lease holder, events committed on other nodes
+    @Scheduled(fixedDelayString = "${app.outbox.poll-ms}")
+    public void poll() {
+        requestDrain();
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-ms}")
+    public void purge() {
+        outboxService.purgeProcessed();
+    }
+
+    private void requestDrain() {
+        // Bursts of commits collapse into a single pending drain
+        if (drainRequested.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                drainRequested.set(false);
+                try {
+                    drain();
+                } catch (Exception e) {
+                    logger.error("Outbox drain failed: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void drain() {
+        Duration lease = Duration.ofMillis(leaseMs);
+        List<OutboxEvent> batch;
+        do {
+            // Renewed before every batch; a node that does not hold the lease leaves the outbox to the one that does
+            if (!schedulerLeaseService.tryAcquire(LEASE_NAME, lease)) {
+                return;
+            }
+            batch = outboxService.findDue(batchSize);
+            // A failed event holds back the rest of that user's events so they arrive in order
+            Set<Long> blocked = new HashSet<>();
+            for (OutboxEvent event : batch) {
+                if (blocked.contains(event.getRecipientId())) {
+                    continue;
+                }
+                try {
+                    OutboxService.Delivery delivery = outboxService.deliver(event);
+                    if (delivery != null) {
+                        push(delivery);
+                    }
+                } catch (Exception e) {
+                    blocked.add(event.getRecipientId());
+                    logger.warn("Outbox event {} failed: {}", event.getId(), e.getMessage());
+                    outboxService.recordFailure(event.getId(), e);
+                }
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private void push(OutboxService.Delivery delivery) {
+        OutboxEvent event = delivery.event();
+        // Pushes are best effort once the notification is stored; clients reload the list on reconnect
+        try {
+            Notification notification = delivery.notification();
+            if (notification != null) {
+                notificationService.publishNotification(event.getRecipientId(), event.getRecipientUsername(), notification);
+            }
+            if (event.getBookingStatus() != null) {
+                webSocketService.sendBookingUpdate(event.getRecipientUsername(), event.getBookingId().toString(),
+                        event.getBookingStatus(), event.getBookingMessage());
+            }
+        } catch (Exception e) {
+            logger.warn("Push for outbox event {} failed: {}", event.getId(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,155 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.Notification;
+import com.mechanicOnDemand.model.OutboxEvent;
+import com.mechanicOnDemand.model.OutboxStatus;
+import com.mechanicOnDemand.repository.OutboxEventRepository;
+import com.mechanicOnDemand.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+public class OutboxService {
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retry-base-ms}")
+    private long retryBaseMs;
+
+    @Value("${app.outbox.retention-hours}")
+    private long retentionHours;
+
+    // Published inside the enqueuing transaction; the dispatcher reacts once it commits
+    public record Enqueued() {}
+
+    // Result of a delivered event, carrying what still has to be pushed after commit
+    public record Delivery(OutboxEvent event, Notification notification) {}
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEvent event) {
+        lockRecipients(List.of(event.getRecipientId()));
+        outboxEventRepository.save(event);
+        eventPublisher.publishEvent(new Enqueued());
+    }
+
+    // IDENTITY ids keep Hibernate from batching inserts, so bulk callers write their events as one JDBC batch instead
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        lockRecipients(events.stream().map(OutboxEvent::getRecipientId).toList());
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_events (recipient_id, recipient_username, notification_type, title, " +
+                        "message, booking_id, booking_status, booking_message, status, attempts, next_attempt_at, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.getRecipientId());
+            ps.setString(2, event.getRecipientUsername());
+            ps.setString(3, event.getNotificationType() != null ? event.getNotificationType().name() : null);
+            ps.setString(4, event.getTitle());
+            ps.setString(5, event.getMessage());
+            ps.setObject(6, event.getBookingId());
+            ps.setString(7, event.getBookingStatus());
+            ps.setString(8, event.getBookingMessage());
+            ps.setString(9, event.getStatus().name());
+            ps.setInt(10, event.getAttempts());
+            ps.setTimestamp(11, Timestamp.valueOf(event.getNextAttemptAt()));
+            ps.setTimestamp(12, Timestamp.valueOf(event.getCreatedAt()));
+        });
+        eventPublisher.publishEvent(new Enqueued());
+    }
+
+    /**
+     * AUTO_INCREMENT ids are handed out at INSERT, not at commit, so two transactions writing events for
+     * the same user could commit out of id order and a drain in between would deliver them reversed.
+     * Bumping the recipients' outbox_recipients counters holds those rows until commit, so the second
+     * writer waits and only takes its id once the first has committed. The rows belong to the outbox
+     * alone, so logins and profile writes on the users table never queue behind it. Rows are upserted
+     * in id order to keep bulk writers from deadlocking.
+     */
+    private void lockRecipients(Collection<Long> recipientIds) {
+        Map<Long, Long> counts = recipientIds.stream()
+                .collect(Collectors.groupingBy(id -> id, TreeMap::new, Collectors.counting()));
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_recipients (recipient_id, next_seq) VALUES (?, ?) " +
+                        "ON DUPLICATE KEY UPDATE next_seq = next_seq + VALUES(next_seq)",
+                new ArrayList<>(counts.entrySet()), counts.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getKey());
+            ps.setLong(2, entry.getValue());
+        });
+    }
+
+    public List<OutboxEvent> findDue(int limit) {
+        return outboxEventRepository.findDue(OutboxStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+
+    // Claims the event and stores its notification atomically, so a retry after a crash can neither lose nor repeat it
+    @Transactional
+    public Delivery deliver(OutboxEvent event) {
+        if (outboxEventRepository.claim(event.getId(), OutboxStatus.PENDING, OutboxStatus.SENT, LocalDateTime.now()) == 0) {
+            return null;
+        }
+        Notification notification = null;
+        if (event.getNotificationType() != null) {
+            notification = notificationService.saveNotification(userRepository.getReferenceById(event.getRecipientId()),
+                    event.getTitle(), event.getMessage(), event.getNotificationType());
+        }
+        return new Delivery(event, notification);
+    }
+
+    @Transactional
+    public void recordFailure(Long eventId, Exception e) {
+        outboxEventRepository.findById(eventId).ifPresent(event -> {
+            if (event.getStatus() != OutboxStatus.PENDING) {
+                return;
+            }
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(truncate(String.valueOf(e.getMessage()), 500));
+            if (attempts >= maxAttempts) {
+                event.setStatus(OutboxStatus.FAILED);
+                event.setProcessedAt(LocalDateTime.now());
+            } else {
+                long delayMs = retryBaseMs << Math.min(attempts - 1, 10);
+                event.setNextAttemptAt(LocalDateTime.now().plusNanos(delayMs * 1_000_000));
+            }
+        });
+    }
+
+    @Transactional
+    public int purgeProcessed() {
+        return outboxEventRepository.deleteProcessedBefore(OutboxStatus.SENT, LocalDateTime.now().minusHours(retentionHours));
+    }
+
+    private static String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+}
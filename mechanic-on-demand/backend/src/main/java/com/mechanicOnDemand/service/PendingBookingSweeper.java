@@ -0,0 +1,59 @@
+package com.mechanicOnDemand.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Expires bookings nobody answered within the SLA; only the node holding the lease sweeps
+@Component
+public class PendingBookingSweeper {
+    private static final Logger logger = LoggerFactory.getLogger(PendingBookingSweeper.class);
+
+    static final String LEASE_NAME = "pending-booking-sweeper";
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Value("${app.bookings.expiry.pending-sla-minutes}")
+    private long pendingSlaMinutes;
+
+    @Value("${app.bookings.expiry.batch-size}")
+    private int batchSize;
+
+    @Value("${app.bookings.expiry.max-batches-per-run}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.bookings.expiry.lease-ms}")
+    private long leaseMs;
+
+    @Scheduled(fixedDelayString = "${app.bookings.expiry.sweep-ms}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(pendingSlaMinutes);
+        Duration lease = Duration.ofMillis(leaseMs);
+        int expired = 0;
+        try {
+            // Renewed before every batch, so a node that stalls hands the sweep over instead of two nodes sweeping at once
+            for (int batch = 0; batch < maxBatchesPerRun && schedulerLeaseService.tryAcquire(LEASE_NAME, lease); batch++) {
+                int count = bookingService.expireStalePending(cutoff, batchSize);
+                expired += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Pending booking sweep failed: {}", e.getMessage());
+        }
+        if (expired > 0) {
+            logger.info("Expired {} bookings left pending since before {}", expired, cutoff);
+        }
+    }
+}
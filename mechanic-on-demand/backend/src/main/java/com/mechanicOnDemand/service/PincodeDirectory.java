@@ -0,0 +1,50 @@
+package com.mechanicOnDemand.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+public class PincodeDirectory {
+    private static final Logger logger = LoggerFactory.getLogger(PincodeDirectory.class);
+    private static final String DATASET = "data/pincode-centroids.csv";
+
+    private final Map<String, double[]> centroids = new HashMap<>();
+
+    @PostConstruct
+    void load() throws IOException {
+        ClassPathResource resource = new ClassPathResource(DATASET);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                centroids.put(parts[0].trim(), new double[] {
+                        Double.parseDouble(parts[1].trim()), Double.parseDouble(parts[2].trim()) });
+            }
+        }
+        logger.info("Loaded {} pincode centroids", centroids.size());
+    }
+
+    // Returns {latitude, longitude} for a known pincode
+    public Optional<double[]> centroidOf(String pincode) {
+        if (pincode == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(centroids.get(pincode.trim()));
+    }
+}
@@ -0,0 +1,56 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.repository.MechanicRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Fixes any drift between the precomputed mechanic ratings and the reviews table; only the lease holder runs it
+@Component
+public class RatingReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(RatingReconciler.class);
+
+    static final String LEASE_NAME = "rating-reconciler";
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private MechanicRepository mechanicRepository;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Value("${app.reviews.reconcile.chunk-size}")
+    private int chunkSize;
+
+    @Value("${app.reviews.reconcile.lease-ms}")
+    private long leaseMs;
+
+    @Scheduled(fixedDelayString = "${app.reviews.reconcile.run-ms}")
+    public void reconcile() {
+        Duration lease = Duration.ofMillis(leaseMs);
+        long afterId = 0;
+        int corrected = 0;
+        try {
+            List<Long> ids;
+            while (schedulerLeaseService.tryAcquire(LEASE_NAME, lease)
+                    && !(ids = mechanicRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize))).isEmpty()) {
+                corrected += reviewService.reconcileRatings(ids);
+                afterId = ids.get(ids.size() - 1);
+            }
+        } catch (Exception e) {
+            logger.error("Rating reconciliation failed: {}", e.getMessage());
+        }
+        if (corrected > 0) {
+            logger.warn("Corrected the stored rating of {} mechanics", corrected);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.dto.ReviewRequest;
+import com.mechanicOnDemand.model.Booking;
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.model.Mechanic;
+import com.mechanicOnDemand.model.Review;
+import com.mechanicOnDemand.repository.BookingRepository;
+import com.mechanicOnDemand.repository.MechanicRepository;
+import com.mechanicOnDemand.repository.ReviewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Reviews of completed bookings. Each review adds to the mechanic's precomputed rating, rating sum and
+ * review count in one UPDATE, so mechanic reads and searches never aggregate over the reviews table.
+ */
+@Service
+public class ReviewService {
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MechanicRepository mechanicRepository;
+
+    @Autowired
+    private MechanicService mechanicService;
+
+    @Autowired
+    private MechanicRankingIndex rankingIndex;
+
+    @Transactional
+    public Review submitReview(Long bookingId, Long customerId, ReviewRequest request) {
+        Booking booking = bookingRepository.findWithPartiesById(bookingId)
+                .filter(b -> b.getCustomer().getId().equals(customerId))
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        if (booking.getStatus() != BookingStatus.COMPLETED || booking.getMechanic() == null) {
+            throw new RuntimeException("Only completed bookings can be reviewed");
+        }
+        if (reviewRepository.existsByBookingId(bookingId)) {
+            throw new BookingConflictException("This booking has already been reviewed");
+        }
+
+        Mechanic mechanic = booking.getMechanic();
+        Review review;
+        try {
+            // The unique booking_id constraint settles two submissions racing past the check above
+            review = reviewRepository.saveAndFlush(new Review(booking, booking.getCustomer(), mechanic,
+                    request.getRating(), request.getComment()));
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingConflictException("This booking has already been reviewed");
+        }
+        mechanicRepository.addRating(mechanic.getId(), request.getRating());
+        rankingIndex.reviewAddedAfterCommit(mechanic.getId(), request.getRating());
+        mechanicService.ratingsChanged(List.of(mechanic.getId()));
+        return review;
+    }
+
+    // Recomputes the rating of those mechanics whose stored totals no longer match the reviews table
+    @Transactional
+    public int reconcileRatings(List<Long> mechanicIds) {
+        List<Long> drifted = mechanicRepository.findIdsWithRatingDrift(mechanicIds);
+        if (!drifted.isEmpty()) {
+            mechanicRepository.recomputeRatings(drifted);
+            mechanicService.ratingsChanged(drifted);
+        }
+        return drifted.size();
+    }
+}
@@ -0,0 +1,44 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.repository.SchedulerLeaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lets a scheduled job run on one node at a time. A lease is a row holding its owner and expiry;
+ * the owner keeps it by renewing before it runs out, and any node may take it over once it has.
+ */
+@Service
+public class SchedulerLeaseService {
+    private final String owner = UUID.randomUUID().toString();
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    // Commits on its own so the lease is visible to other nodes before the job starts
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(duration);
+        return schedulerLeaseRepository.insertIfAbsent(name, owner, until) > 0
+                || schedulerLeaseRepository.tryAcquire(name, owner, now, until) > 0;
+    }
+
+    // Hands a lease back early so another node can take it straight away
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String name) {
+        schedulerLeaseRepository.release(name, owner);
+    }
+
+    // Drops leases under a name prefix that nobody has renewed since before the given time
+    @Transactional
+    public int purgeExpired(String prefix, LocalDateTime before) {
+        return schedulerLeaseRepository.deleteExpired(prefix, before);
+    }
+}
@@ -0,0 +1,112 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Per-user unread notification counts. A user's count is loaded once and then kept current by the
+ * notification write paths; entries are reloaded after a TTL so writes made on other nodes converge.
+ */
+@Component
+public class UnreadCountCache {
+    private static final int STRIPES = 1024;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Value("${app.notifications.unread-cache.max-size}")
+    private int maxSize;
+
+    @Value("${app.notifications.unread-cache.ttl-ms}")
+    private long ttlMs;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped by every delta to a user in the stripe; a load that overlapped one is returned but not cached
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    public long get(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.loadedAt + ttlMs > now) {
+            return entry.count.get();
+        }
+        if (entries.size() >= maxSize) {
+            evictOverflow(now);
+        }
+        int stripe = stripe(userId);
+        long stamp = stamps.get(stripe);
+        Long count = notificationRepository.countUnreadNotificationsByUser(userId);
+        long loaded = count == null ? 0 : count;
+        entries.compute(userId, (id, current) -> stamps.get(stripe) == stamp ? new Entry(loaded, now) : current);
+        return loaded;
+    }
+
+    // Deltas apply once the surrounding transaction commits, so a rollback leaves the count alone.
+    // Users not in the cache are left alone; their next read loads the committed count.
+    public void increment(Long userId, long delta) {
+        afterCommit(() -> apply(userId, count -> count + delta));
+    }
+
+    public void decrement(Long userId, long delta) {
+        afterCommit(() -> apply(userId, count -> Math.max(0, count - delta)));
+    }
+
+    private void apply(Long userId, LongUnaryOperator update) {
+        entries.compute(userId, (id, entry) -> {
+            stamps.incrementAndGet(stripe(userId));
+            if (entry != null) {
+                entry.count.updateAndGet(update);
+            }
+            return entry;
+        });
+    }
+
+    private static int stripe(Long userId) {
+        return (int) (userId & (STRIPES - 1));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void evictOverflow(long now) {
+        entries.values().removeIf(entry -> entry.loadedAt + ttlMs <= now);
+        int toRemove = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        for (Long userId : entries.keySet()) {
+            if (toRemove-- <= 0) {
+                break;
+            }
+            entries.remove(userId);
+        }
+    }
+
+    private static final class Entry {
+        private final AtomicLong count;
+        private final long loadedAt;
+
+        private Entry(long count, long loadedAt) {
+            this.count = new AtomicLong(count);
+            this.loadedAt = loadedAt;
+        }
+    }
+}
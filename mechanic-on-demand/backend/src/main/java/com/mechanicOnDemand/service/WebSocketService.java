@@ -43,4 +43,15 @@ public class WebSocketService {
         
         messagingTemplate.convertAndSend("/topic/system", systemMessage);
     }
-}
\ No newline at end of file
+
+    public void broadcastSegmentNotification(String title, String body, Map<String, Object> segment) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("title", title);
+        message.put("message", body);
+        message.put("type", "SYSTEM_NOTIFICATION");
+        message.put("segment", segment);
+        message.put("timestamp", System.currentTimeMillis());
+        
+        messagingTemplate.convertAndSend("/topic/system", message);
+    }
+}
@@ -0,0 +1,37 @@
+package com.mechanicOnDemand;
+
+import com.mechanicOnDemand.model.Booking;
+import com.mechanicOnDemand.model.Mechanic;
+import com.mechanicOnDemand.model.Role;
+import com.mechanicOnDemand.model.User;
+
+import java.math.BigDecimal;
+
+// Unsaved entities shared by the unit tests; mechanic n belongs to user 1000 + n
+public final class TestFixtures {
+    private TestFixtures() {
+    }
+
+    public static Mechanic mechanic(long id) {
+        return mechanic(id, "brakes");
+    }
+
+    // A verified mechanic with the given skills
+    public static Mechanic mechanic(long id, String skills) {
+        User user = new User("mechanic" + id, "mechanic" + id + "@example.com", "secret", "Mechanic " + id, Role.MECHANIC);
+        user.setId(1000 + id);
+        Mechanic mechanic = new Mechanic(user, skills, new BigDecimal("500"));
+        mechanic.setId(id);
+        mechanic.setIsVerified(true);
+        return mechanic;
+    }
+
+    // A booking whose mechanic only carries its id
+    public static Booking booking(long mechanicId) {
+        Mechanic mechanic = new Mechanic();
+        mechanic.setId(mechanicId);
+        Booking booking = new Booking();
+        booking.setMechanic(mechanic);
+        return booking;
+    }
+}
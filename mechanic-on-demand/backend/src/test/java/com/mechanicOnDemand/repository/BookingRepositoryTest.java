@@ -0,0 +1,163 @@
+package com.mechanicOnDemand.repository;
+
+import com.mechanicOnDemand.dto.BookingSummary;
+import com.mechanicOnDemand.model.Booking;
+import com.mechanicOnDemand.model.BookingOffer;
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.model.Mechanic;
+import com.mechanicOnDemand.model.Role;
+import com.mechanicOnDemand.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// The booking finders declare entity graphs so that customer, mechanic and mechanic.user arrive in the same statement
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class BookingRepositoryTest {
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User customer;
+    private Mechanic mechanic;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        customer = entityManager.persist(new User("customer", "customer@example.com", "secret", "Customer", Role.CUSTOMER));
+        User otherCustomer = entityManager.persist(new User("other", "other@example.com", "secret", "Other", Role.CUSTOMER));
+        User mechanicUser = entityManager.persist(new User("mechanic", "mechanic@example.com", "secret", "Mechanic", Role.MECHANIC));
+        User otherMechanicUser = entityManager.persist(new User("mechanic2", "mechanic2@example.com", "secret", "Mechanic Two", Role.MECHANIC));
+        mechanic = entityManager.persist(new Mechanic(mechanicUser, "brakes", new BigDecimal("500")));
+        Mechanic otherMechanic = entityManager.persist(new Mechanic(otherMechanicUser, "engine", new BigDecimal("600")));
+
+        entityManager.persist(booking(customer, mechanic, BookingStatus.ACCEPTED));
+        entityManager.persist(booking(customer, otherMechanic, BookingStatus.COMPLETED));
+        entityManager.persist(booking(customer, null, BookingStatus.PENDING));
+        entityManager.persist(booking(otherCustomer, mechanic, BookingStatus.ACCEPTED));
+        entityManager.persist(booking(otherCustomer, null, BookingStatus.PENDING));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllFetchesPartiesInOneStatement() {
+        List<Booking> bookings = bookingRepository.findAll();
+
+        assertEquals(5, bookings.size());
+        touchParties(bookings);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void customerHistoryFetchesPartiesInOneStatement() {
+        List<Booking> bookings = bookingRepository.findByCustomerIdOrderByCreatedAtDesc(customer.getId());
+
+        assertEquals(3, bookings.size());
+        touchParties(bookings);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void mechanicHistoryFetchesPartiesInOneStatement() {
+        List<Booking> bookings = bookingRepository.findByMechanicIdOrderByCreatedAtDesc(mechanic.getId());
+
+        assertEquals(2, bookings.size());
+        touchParties(bookings);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bookingByIdFetchesPartiesInOneStatement() {
+        Long bookingId = bookingRepository.findByMechanicIdOrderByCreatedAtDesc(mechanic.getId()).get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        Booking booking = bookingRepository.findWithPartiesById(bookingId).orElseThrow();
+
+        touchParties(List.of(booking));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void openBookingsFetchCustomerInOneStatement() {
+        List<Booking> bookings = bookingRepository.findOpenBookings(BookingStatus.PENDING);
+
+        assertEquals(2, bookings.size());
+        touchParties(bookings);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void summaryPageIsOneStatement() {
+        List<BookingSummary> page = bookingRepository.findCustomerBookingsBefore(customer.getId(), null,
+                LocalDateTime.now().plusDays(1), Long.MAX_VALUE, PageRequest.of(0, 10));
+
+        assertEquals(3, page.size());
+        for (BookingSummary summary : page) {
+            assertEquals("Customer", summary.getCustomerName());
+            if (summary.getStatus() == BookingStatus.PENDING) {
+                assertNull(summary.getMechanicName());
+            } else {
+                assertNotNull(summary.getMechanicName());
+            }
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void openBookingCanOnlyBeClaimedByAnOfferedMechanic() {
+        Long bookingId = bookingRepository.findOpenBookings(BookingStatus.PENDING).get(0).getId();
+        Mechanic offered = entityManager.find(Mechanic.class, mechanic.getId());
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(0, bookingRepository.claimOpenBooking(bookingId, offered.getId(), BookingStatus.PENDING.name(),
+                BookingStatus.ACCEPTED.name(), null, now));
+
+        entityManager.persist(new BookingOffer(bookingId, offered.getId(), now));
+        entityManager.flush();
+        assertEquals(1, bookingRepository.claimOpenBooking(bookingId, offered.getId(), BookingStatus.PENDING.name(),
+                BookingStatus.ACCEPTED.name(), null, now));
+        assertEquals(0, bookingRepository.claimOpenBooking(bookingId, offered.getId(), BookingStatus.PENDING.name(),
+                BookingStatus.ACCEPTED.name(), null, now));
+    }
+
+    private static Booking booking(User customer, Mechanic mechanic, BookingStatus status) {
+        Booking booking = new Booking(customer, mechanic, "Strange noise", "Home");
+        booking.setStatus(status);
+        return booking;
+    }
+
+    private static void touchParties(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            assertNotNull(booking.getCustomer().getFullName());
+            if (booking.getMechanic() != null) {
+                assertNotNull(booking.getMechanic().getUser().getFullName());
+            }
+        }
+    }
+}
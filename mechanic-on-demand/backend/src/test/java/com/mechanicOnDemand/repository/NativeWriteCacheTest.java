@@ -0,0 +1,88 @@
+package com.mechanicOnDemand.repository;
+
+import com.mechanicOnDemand.config.SecondLevelCacheConfig;
+import com.mechanicOnDemand.model.Mechanic;
+import com.mechanicOnDemand.model.Role;
+import com.mechanicOnDemand.model.User;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Native writes declare the tables they touch, so the archive job leaves cached users and mechanics alone
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import(SecondLevelCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NativeWriteCacheTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MechanicRepository mechanicRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Cache cache;
+    private Mechanic mechanic;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        cache = entityManagerFactory.getCache();
+        mechanic = transaction.execute(status -> {
+            User user = userRepository.save(new User("mechanic", "mechanic@example.com", "secret", "Mechanic", Role.MECHANIC));
+            return mechanicRepository.save(new Mechanic(user, "brakes", new BigDecimal("500")));
+        });
+        cache.evictAll();
+        transaction.executeWithoutResult(status -> mechanicRepository.findById(mechanic.getId()).orElseThrow().getUser().getFullName());
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            mechanicRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void archiveWritesKeepOtherRegionsCached() {
+        assertTrue(cache.contains(Mechanic.class, mechanic.getId()));
+        assertTrue(cache.contains(User.class, mechanic.getUser().getId()));
+
+        transaction.executeWithoutResult(status -> {
+            archivedBookingRepository.copyFromBookings(List.of(-1L), LocalDateTime.now());
+            reviewRepository.detachArchivedBookings(List.of(-1L));
+        });
+
+        assertTrue(cache.contains(Mechanic.class, mechanic.getId()));
+        assertTrue(cache.contains(User.class, mechanic.getUser().getId()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.mechanicOnDemand.repository;
+
+import com.mechanicOnDemand.model.IdSequences;
+import com.mechanicOnDemand.model.Notification;
+import com.mechanicOnDemand.model.NotificationType;
+import com.mechanicOnDemand.model.Role;
+import com.mechanicOnDemand.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Notifications are written in bulk by the outbox, so their INSERTs have to reach the driver as JDBC batches
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class NotificationRepositoryTest {
+    private static final int COUNT = 500;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = entityManager.persist(new User("customer", "customer@example.com", "secret", "Customer", Role.CUSTOMER));
+        entityManager.flush();
+        statistics.clear();
+    }
+
+    @Test
+    void bulkInsertIsBatched() {
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            notifications.add(new Notification(user, "Title " + i, "Message " + i, NotificationType.SYSTEM_NOTIFICATION));
+        }
+
+        notificationRepository.saveAll(notifications);
+        entityManager.flush();
+
+        assertEquals(COUNT, statistics.getEntityInsertCount());
+        // One statement per batch of 50 plus a couple per block of ids from the table generator, instead of one per row
+        long batches = COUNT / 50;
+        long idBlocks = (COUNT + IdSequences.ALLOCATION_SIZE - 1) / IdSequences.ALLOCATION_SIZE + 1;
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= batches + 3 * idBlocks, "prepared " + statements + " statements for " + COUNT + " inserts");
+    }
+}
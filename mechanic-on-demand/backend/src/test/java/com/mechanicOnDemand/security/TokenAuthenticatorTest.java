@@ -0,0 +1,80 @@
+package com.mechanicOnDemand.security;
+
+import com.mechanicOnDemand.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenAuthenticatorTest {
+    private JwtUtils jwtUtils;
+    private UserRepository userRepository;
+    private VerifiedTokenCache tokenCache;
+    private TokenAuthenticator authenticator;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = mock(JwtUtils.class);
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findInactiveUserIds()).thenReturn(List.of());
+
+        tokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(tokenCache, "userRepository", userRepository);
+        ReflectionTestUtils.setField(tokenCache, "maxSize", 100);
+        ReflectionTestUtils.setField(tokenCache, "ttlMs", 60_000L);
+
+        authenticator = new TokenAuthenticator();
+        ReflectionTestUtils.setField(authenticator, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(authenticator, "tokenCache", tokenCache);
+        ReflectionTestUtils.setField(authenticator, "claimsPrincipal", true);
+
+        token("token-5", 5L);
+        token("token-6", 6L);
+    }
+
+    @Test
+    void userDeletedHereStaysRejectedAfterRefresh() {
+        assertNotNull(authenticator.authenticate("token-5"));
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(6L));
+
+        tokenCache.userDeleted(5L);
+        assertNull(authenticator.authenticate("token-5"));
+
+        tokenCache.refreshInactiveUsers();
+        assertNull(authenticator.authenticate("token-5"));
+        tokenCache.refreshInactiveUsers();
+        assertNull(authenticator.authenticate("token-5"));
+    }
+
+    @Test
+    void userDeletedOnAnotherNodeIsRejectedAfterRefresh() {
+        assertNotNull(authenticator.authenticate("token-5"));
+        assertNotNull(authenticator.authenticate("token-6"));
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(6L));
+
+        tokenCache.refreshInactiveUsers();
+
+        assertNull(authenticator.authenticate("token-5"));
+        assertNotNull(authenticator.authenticate("token-6"));
+        tokenCache.refreshInactiveUsers();
+        assertNull(authenticator.authenticate("token-5"));
+    }
+
+    private void token(String jwt, Long userId) {
+        Claims claims = mock(Claims.class);
+        when(claims.get(JwtUtils.CLAIM_USER_ID, Number.class)).thenReturn(userId);
+        when(claims.get(JwtUtils.CLAIM_ROLE, String.class)).thenReturn("CUSTOMER");
+        when(claims.getSubject()).thenReturn("user" + userId);
+        when(claims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 3_600_000));
+        when(jwtUtils.parseVerifiedClaims(jwt)).thenReturn(claims);
+    }
+}
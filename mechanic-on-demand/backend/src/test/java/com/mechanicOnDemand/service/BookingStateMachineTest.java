@@ -0,0 +1,65 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.BookingStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingStateMachineTest {
+    private static final Set<BookingStatus> TERMINAL = EnumSet.of(BookingStatus.COMPLETED, BookingStatus.CANCELLED,
+            BookingStatus.REJECTED, BookingStatus.EXPIRED);
+
+    @Test
+    void allowsTheBookingLifecycle() {
+        assertTrue(BookingStateMachine.canTransition(BookingStatus.PENDING, BookingStatus.ACCEPTED));
+        assertTrue(BookingStateMachine.canTransition(BookingStatus.ACCEPTED, BookingStatus.IN_PROGRESS));
+        assertTrue(BookingStateMachine.canTransition(BookingStatus.IN_PROGRESS, BookingStatus.COMPLETED));
+        assertTrue(BookingStateMachine.canTransition(BookingStatus.PENDING, BookingStatus.EXPIRED));
+        assertTrue(BookingStateMachine.canTransition(BookingStatus.ACCEPTED, BookingStatus.CANCELLED));
+    }
+
+    @Test
+    void terminalStatusesAreFinal() {
+        for (BookingStatus from : TERMINAL) {
+            for (BookingStatus to : BookingStatus.values()) {
+                assertFalse(BookingStateMachine.canTransition(from, to), from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void noStatusTransitionsToItselfOrBackToPending() {
+        for (BookingStatus status : BookingStatus.values()) {
+            assertFalse(BookingStateMachine.canTransition(status, status));
+            assertFalse(BookingStateMachine.canTransition(status, BookingStatus.PENDING));
+        }
+        assertFalse(BookingStateMachine.canTransition(BookingStatus.IN_PROGRESS, BookingStatus.CANCELLED));
+    }
+
+    @Test
+    void sourcesAreTheInverseOfTransitions() {
+        for (BookingStatus to : BookingStatus.values()) {
+            Set<BookingStatus> expected = EnumSet.noneOf(BookingStatus.class);
+            for (BookingStatus from : BookingStatus.values()) {
+                if (BookingStateMachine.canTransition(from, to)) {
+                    expected.add(from);
+                }
+            }
+            assertEquals(expected, BookingStateMachine.sourcesOf(to));
+        }
+        assertEquals(EnumSet.of(BookingStatus.ACCEPTED, BookingStatus.IN_PROGRESS),
+                BookingStateMachine.sourcesOf(BookingStatus.COMPLETED));
+    }
+
+    @Test
+    void sourcesCannotBeModified() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> BookingStateMachine.sourcesOf(BookingStatus.ACCEPTED).add(BookingStatus.COMPLETED));
+    }
+}
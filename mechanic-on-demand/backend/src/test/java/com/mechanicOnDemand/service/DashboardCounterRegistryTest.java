@@ -0,0 +1,60 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.model.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DashboardCounterRegistryTest {
+    private DashboardCounterRegistry counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new DashboardCounterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changesWaitForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        counters.bookingCreated(BookingStatus.PENDING);
+        counters.mechanicChanged(null, null, true, true);
+        assertEquals(0L, counters.snapshot().get("pendingBookings"));
+        assertEquals(0L, counters.snapshot().get("verifiedMechanics"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1L, counters.snapshot().get("pendingBookings"));
+        assertEquals(1L, counters.snapshot().get("verifiedMechanics"));
+        assertEquals(1L, counters.snapshot().get("availableMechanics"));
+    }
+
+    @Test
+    void rolledBackChangesAreDropped() {
+        counters.userRegistered(Role.MECHANIC, true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        counters.userRegistered(Role.CUSTOMER, true);
+        counters.userActivationChanged(true, false);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        Map<String, Object> stats = counters.snapshot();
+        assertEquals(1L, stats.get("totalUsers"));
+        assertEquals(1L, stats.get("activeUsers"));
+        assertEquals(0L, stats.get("totalCustomers"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.mechanicOnDemand.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    private static final double[] QUANTILES = { 0.01, 0.25, 0.50, 0.90, 0.95, 0.99, 0.999, 1.0 };
+
+    @Test
+    void bucketsCoverEveryValueInOrder() {
+        int previous = -1;
+        for (long value = 0; value < 1L << 20; value += 1 + value / 64) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index >= previous, "bucket of " + value + " went backwards");
+            long lower = LatencyHistogram.lowerBoundOf(index);
+            assertTrue(lower <= value, value + " below its bucket starting " + lower);
+            assertTrue(value - lower <= Math.max(0, value / 16), value + " too far above its bucket starting " + lower);
+            previous = index;
+        }
+    }
+
+    @Test
+    void percentilesAreWithinSixPercent() {
+        Random random = new Random(11);
+        long[] values = new long[100_000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal around ten minutes, like time-to-accept
+            values[i] = Math.round(Math.exp(Math.log(600) + random.nextGaussian() * 1.5));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, histogram.count());
+        for (double quantile : QUANTILES) {
+            long exact = values[(int) Math.max(0, Math.ceil(quantile * values.length) - 1)];
+            long reported = histogram.percentile(quantile);
+            assertTrue(Math.abs(reported - exact) <= Math.max(1, exact * 0.06),
+                    "p" + quantile + " was " + reported + ", exact " + exact);
+        }
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(5L, histogram.percentile(0.5));
+        assertEquals(10L, histogram.percentile(1.0));
+        assertEquals(1L, histogram.percentile(0.0));
+    }
+
+    @Test
+    void mergeMatchesRecordingEverythingInOne() {
+        Random random = new Random(3);
+        LatencyHistogram combined = new LatencyHistogram();
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextInt(86_400);
+            combined.record(value);
+            (i % 3 == 0 ? first : second).record(value);
+        }
+
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.merge(first);
+        merged.merge(second);
+
+        assertEquals(combined.count(), merged.count());
+        for (double quantile : QUANTILES) {
+            assertEquals(combined.percentile(quantile), merged.percentile(quantile));
+        }
+        assertEquals(combined.summary(), merged.summary());
+    }
+
+    @Test
+    void emptyNegativeAndHugeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertNull(histogram.percentile(0.5));
+        assertEquals(0L, histogram.summary().get("count"));
+
+        histogram.record(-5);
+        assertEquals(0L, histogram.percentile(1.0));
+
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(Long.MAX_VALUE);
+        assertTrue(histogram.percentile(1.0) >= 1L << 24);
+        assertEquals(3, histogram.count());
+    }
+}
@@ -0,0 +1,130 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.TestFixtures;
+import com.mechanicOnDemand.dto.NearbyMechanicResponse;
+import com.mechanicOnDemand.model.Mechanic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MechanicGeoIndexTest {
+    private MechanicGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MechanicGeoIndex();
+        ReflectionTestUtils.setField(index, "cellSizeDegrees", 0.05);
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random random = new Random(42);
+        List<double[]> points = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            double latitude = 18.9 + random.nextDouble() * 0.6;
+            double longitude = 72.7 + random.nextDouble() * 0.6;
+            points.add(new double[] { id, latitude, longitude });
+            index.index(mechanic(id, latitude, longitude));
+        }
+
+        for (int query = 0; query < 50; query++) {
+            double latitude = 18.9 + random.nextDouble() * 0.6;
+            double longitude = 72.7 + random.nextDouble() * 0.6;
+            double radiusKm = 1 + random.nextDouble() * 20;
+            int k = 1 + random.nextInt(25);
+
+            // Distances are reported to 10 m, so near ties may come back in either order
+            List<Double> expected = points.stream()
+                    .map(p -> MechanicGeoIndex.distanceKm(latitude, longitude, p[1], p[2]))
+                    .filter(distance -> distance <= radiusKm)
+                    .sorted()
+                    .limit(k)
+                    .map(distance -> Math.round(distance * 100.0) / 100.0)
+                    .toList();
+            List<Double> actual = index.nearest(latitude, longitude, radiusKm, k).stream()
+                    .map(NearbyMechanicResponse::getDistanceKm)
+                    .toList();
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void resultsAreSortedAndWithinRadius() {
+        for (long id = 1; id <= 100; id++) {
+            index.index(mechanic(id, 19.0 + id * 0.001, 72.8 + id * 0.001));
+        }
+
+        List<NearbyMechanicResponse> result = index.nearest(19.05, 72.85, 3, 100);
+
+        assertFalse(result.isEmpty());
+        for (int i = 0; i < result.size(); i++) {
+            assertTrue(result.get(i).getDistanceKm() <= 3);
+            if (i > 0) {
+                assertTrue(result.get(i - 1).getDistanceKm() <= result.get(i).getDistanceKm());
+            }
+        }
+    }
+
+    @Test
+    void onlySearchableMechanicsAreIndexed() {
+        Mechanic unverified = mechanic(1L, 19.0, 72.8);
+        unverified.setIsVerified(false);
+        Mechanic unavailable = mechanic(2L, 19.0, 72.8);
+        unavailable.setIsAvailable(false);
+        Mechanic inactive = mechanic(3L, 19.0, 72.8);
+        inactive.getUser().setIsActive(false);
+
+        index.index(unverified);
+        index.index(unavailable);
+        index.index(inactive);
+
+        assertFalse(index.contains(1L));
+        assertFalse(index.contains(2L));
+        assertFalse(index.contains(3L));
+        assertTrue(index.nearest(19.0, 72.8, 10, 10).isEmpty());
+    }
+
+    @Test
+    void reindexingMovesAndDeactivationRemoves() {
+        Mechanic mechanic = mechanic(1L, 19.0, 72.8);
+        index.index(mechanic);
+
+        mechanic.getUser().setLatitude(28.6);
+        mechanic.getUser().setLongitude(77.2);
+        index.index(mechanic);
+        assertTrue(index.nearest(19.0, 72.8, 10, 10).isEmpty());
+        assertEquals(1, index.nearest(28.6, 77.2, 10, 10).size());
+
+        mechanic.getUser().setIsActive(false);
+        index.index(mechanic);
+        assertFalse(index.contains(1L));
+        assertTrue(index.nearest(28.6, 77.2, 10, 10).isEmpty());
+    }
+
+    @Test
+    void removeDropsMechanic() {
+        index.index(mechanic(1L, 19.0, 72.8));
+        index.index(mechanic(2L, 19.001, 72.8));
+
+        index.remove(1L);
+
+        List<NearbyMechanicResponse> result = index.nearest(19.0, 72.8, 10, 10);
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getMechanicId());
+    }
+
+    private static Mechanic mechanic(long id, double latitude, double longitude) {
+        Mechanic mechanic = TestFixtures.mechanic(id);
+        mechanic.getUser().setLatitude(latitude);
+        mechanic.getUser().setLongitude(longitude);
+        return mechanic;
+    }
+}
@@ -0,0 +1,81 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.Mechanic;
+import com.mechanicOnDemand.repository.MechanicRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static com.mechanicOnDemand.TestFixtures.mechanic;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MechanicProfileCacheTest {
+    private MechanicRepository mechanicRepository;
+    private MechanicProfileCache cache;
+
+    @BeforeEach
+    void setUp() {
+        mechanicRepository = mock(MechanicRepository.class);
+        cache = new MechanicProfileCache();
+        ReflectionTestUtils.setField(cache, "mechanicRepository", mechanicRepository);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        cache.init();
+    }
+
+    @Test
+    void hitsAreServedFromTheCacheUnderBothKeys() {
+        Mechanic mechanic = mechanic(1L);
+        when(mechanicRepository.findById(1L)).thenReturn(Optional.of(mechanic));
+
+        assertEquals(mechanic, cache.getById(1L).orElseThrow());
+        assertEquals(mechanic, cache.getById(1L).orElseThrow());
+        assertEquals(mechanic, cache.getByUserId(1001L).orElseThrow());
+
+        verify(mechanicRepository, times(1)).findById(1L);
+        verify(mechanicRepository, times(0)).findByUserId(1001L);
+    }
+
+    @Test
+    void invalidateByMechanicIdDropsTheUserKeyToo() {
+        Mechanic mechanic = mechanic(1L);
+        when(mechanicRepository.findById(1L)).thenReturn(Optional.of(mechanic));
+        when(mechanicRepository.findByUserId(1001L)).thenReturn(Optional.of(mechanic));
+        cache.getById(1L);
+
+        cache.invalidate(1L, null);
+
+        assertEquals(mechanic, cache.getByUserId(1001L).orElseThrow());
+        assertEquals(mechanic, cache.getById(1L).orElseThrow());
+        verify(mechanicRepository, times(1)).findByUserId(1001L);
+        verify(mechanicRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void invalidatingACachedMissReloads() {
+        when(mechanicRepository.findById(1L)).thenReturn(Optional.empty());
+        when(mechanicRepository.findByUserId(1001L)).thenReturn(Optional.empty());
+        assertTrue(cache.getById(1L).isEmpty());
+        assertTrue(cache.getById(1L).isEmpty());
+        assertTrue(cache.getByUserId(1001L).isEmpty());
+        verify(mechanicRepository, times(1)).findById(1L);
+
+        cache.invalidate(1L, 1001L);
+
+        Mechanic mechanic = mechanic(1L);
+        when(mechanicRepository.findById(1L)).thenReturn(Optional.of(mechanic));
+        when(mechanicRepository.findByUserId(1001L)).thenReturn(Optional.of(mechanic));
+        assertEquals(mechanic, cache.getById(1L).orElseThrow());
+        assertEquals(mechanic, cache.getByUserId(1001L).orElseThrow());
+        verify(mechanicRepository, times(2)).findById(1L);
+    }
+}
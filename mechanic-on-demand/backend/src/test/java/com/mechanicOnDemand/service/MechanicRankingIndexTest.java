@@ -0,0 +1,141 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.TestFixtures;
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.model.Mechanic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.mechanicOnDemand.TestFixtures.booking;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MechanicRankingIndexTest {
+    private static final double DELTA = 1e-6;
+
+    private BookingLatencyAnalytics latencyAnalytics;
+    private MechanicRankingIndex index;
+
+    @BeforeEach
+    void setUp() {
+        latencyAnalytics = mock(BookingLatencyAnalytics.class);
+        when(latencyAnalytics.percentile(any(), any(), anyDouble())).thenReturn(null);
+        index = new MechanicRankingIndex();
+        ReflectionTestUtils.setField(index, "latencyAnalytics", latencyAnalytics);
+        ReflectionTestUtils.setField(index, "priorRating", 3.5);
+        ReflectionTestUtils.setField(index, "priorReviews", 5.0);
+        ReflectionTestUtils.setField(index, "reviewHalfLifeDays", 180.0);
+        ReflectionTestUtils.setField(index, "acceptSecondsScale", 900.0);
+        ReflectionTestUtils.setField(index, "ratingWeight", 0.6);
+        ReflectionTestUtils.setField(index, "completionWeight", 0.3);
+        ReflectionTestUtils.setField(index, "acceptLatencyWeight", 0.1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void newMechanicScoresThePriors() {
+        index.index(mechanic(1L, "Mumbai", "brakes"));
+
+        // Rating 3.5 / 5, completion 1 / 2 and no accept latency yet
+        assertEquals(0.6 * 0.7 + 0.3 * 0.5 + 0.1 * 0.5, index.scoreOf(1L), DELTA);
+        assertEquals(0.0, index.scoreOf(2L), DELTA);
+    }
+
+    @Test
+    void reviewsAreSmoothedTowardsThePrior() {
+        index.index(mechanic(1L, "Mumbai", "brakes"));
+
+        index.reviewAddedAfterCommit(1L, new BigDecimal("5.0"));
+
+        double rating = (3.5 * 5 + 5.0) / 6 / 5;
+        assertEquals(0.6 * rating + 0.3 * 0.5 + 0.1 * 0.5, index.scoreOf(1L), 1e-4);
+    }
+
+    @Test
+    void outcomesAndAcceptLatencyMoveTheScore() {
+        index.index(mechanic(1L, "Mumbai", "brakes"));
+        index.index(mechanic(2L, "Mumbai", "brakes"));
+        index.index(mechanic(3L, "Mumbai", "brakes"));
+
+        index.bookingChangedAfterCommit(booking(1L), BookingStatus.COMPLETED);
+        index.bookingChangedAfterCommit(booking(2L), BookingStatus.REJECTED);
+        index.bookingChangedAfterCommit(booking(2L), BookingStatus.CANCELLED);
+        assertEquals(List.of(1L, 3L, 2L), index.topInCity("Mumbai", 10));
+        assertEquals(0.3 * 2.0 / 3.0, index.scoreOf(1L) - 0.6 * 0.7 - 0.1 * 0.5, DELTA);
+
+        index.bookingChangedAfterCommit(booking(3L), BookingStatus.COMPLETED);
+        assertEquals(List.of(1L, 3L, 2L), index.topInCity("Mumbai", 10));
+        when(latencyAnalytics.percentile(BookingLatencyAnalytics.Metric.ACCEPT, 3L, 0.5)).thenReturn(60L);
+        index.bookingChangedAfterCommit(booking(3L), BookingStatus.ACCEPTED);
+        assertEquals(List.of(3L, 1L, 2L), index.topInCity("Mumbai", 10));
+        assertEquals(0.6 * 0.7 + 0.3 * 2.0 / 3.0 + 0.1 * 900 / 960, index.scoreOf(3L), DELTA);
+    }
+
+    @Test
+    void rolledBackChangesAreIgnored() {
+        index.index(mechanic(1L, "Mumbai", "brakes"));
+        double before = index.scoreOf(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.reviewAddedAfterCommit(1L, new BigDecimal("1.0"));
+        index.bookingChangedAfterCommit(booking(1L), BookingStatus.REJECTED);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(before, index.scoreOf(1L), DELTA);
+    }
+
+    @Test
+    void topListsFollowCitySkillsAndSearchability() {
+        Mechanic first = mechanic(1L, " Mumbai ", "brake repair, engine");
+        index.index(first);
+        index.index(mechanic(2L, "Pune", "brake pads"));
+        index.reviewAddedAfterCommit(2L, new BigDecimal("5.0"));
+
+        assertEquals(List.of(1L), index.topInCity("mumbai", 10));
+        assertEquals(List.of(2L, 1L), index.topWithSkill("brake", null, 10));
+        assertEquals(List.of(1L), index.topWithSkill("brake", "MUMBAI", 10));
+        assertEquals(List.of(2L), index.topWithSkill("brake", null, 1));
+        assertEquals(List.of(2L, 1L, 3L), index.rank(List.of(3L, 1L, 2L)));
+
+        first.getUser().setCity("Pune");
+        first.setSkills("engine");
+        index.index(first);
+        assertTrue(index.topInCity("Mumbai", 10).isEmpty());
+        assertEquals(List.of(2L, 1L), index.topInCity("Pune", 10));
+        assertEquals(List.of(2L), index.topWithSkill("brake", null, 10));
+
+        first.setIsAvailable(false);
+        index.index(first);
+        assertEquals(List.of(2L), index.topInCity("Pune", 10));
+        assertTrue(index.topWithSkill("engine", null, 10).isEmpty());
+
+        index.remove(2L);
+        assertTrue(index.topInCity("Pune", 10).isEmpty());
+        assertEquals(0.0, index.scoreOf(2L), DELTA);
+    }
+
+    private static Mechanic mechanic(long id, String city, String skills) {
+        Mechanic mechanic = TestFixtures.mechanic(id, skills);
+        mechanic.getUser().setCity(city);
+        return mechanic;
+    }
+}
@@ -0,0 +1,129 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.TestFixtures;
+import com.mechanicOnDemand.model.Booking;
+import com.mechanicOnDemand.model.BookingStatus;
+import com.mechanicOnDemand.repository.BookingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MechanicScheduleIndexTest {
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private final LocalDateTime nine = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+    private BookingRepository bookingRepository;
+    private MechanicScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new MechanicScheduleIndex();
+        ReflectionTestUtils.setField(index, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(index, "defaultDurationMinutes", 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void overlappingReservationIsRejected() {
+        index.reserve(booking(1L, nine, 60), 7L);
+
+        assertThrows(BookingConflictException.class, () -> index.reserve(booking(2L, nine.plusMinutes(30), 60), 7L));
+        index.reserve(booking(3L, nine.plusHours(1), 60), 7L);
+        index.reserve(booking(4L, nine, 60), 8L);
+    }
+
+    @Test
+    void isFreeAndNextFreeSlotSkipBookedSlots() {
+        index.reserve(booking(1L, nine, 60), 7L);
+        index.reserve(booking(2L, nine.plusMinutes(90), 60), 7L);
+
+        assertFalse(index.isFree(7L, nine.plusMinutes(45), HOUR));
+        assertTrue(index.isFree(7L, nine.minusHours(1), HOUR));
+        assertTrue(index.isFree(7L, nine.plusMinutes(150), HOUR));
+        assertEquals(nine.plusMinutes(150), index.nextFreeSlot(7L, nine, HOUR));
+        assertEquals(nine.plusHours(1), index.nextFreeSlot(7L, nine, Duration.ofMinutes(30)));
+        assertEquals(nine, index.nextFreeSlot(8L, nine, HOUR));
+    }
+
+    @Test
+    void rolledBackReservationIsReleased() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserve(booking(1L, nine, 60), 7L);
+        assertFalse(index.isFree(7L, nine, HOUR));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(index.isFree(7L, nine, HOUR));
+    }
+
+    @Test
+    void releaseWaitsForCommit() {
+        index.reserve(booking(1L, nine, 60), 7L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.release(1L);
+        assertFalse(index.isFree(7L, nine, HOUR));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(index.isFree(7L, nine, HOUR));
+    }
+
+    @Test
+    void warmMergesOverlappingBookingsUntilAllAreReleased() {
+        when(bookingRepository.findScheduledBookings(any())).thenReturn(List.of(
+                booking(1L, nine, 60),
+                booking(2L, nine.plusMinutes(30), 90),
+                booking(3L, nine.plusMinutes(100), 20),
+                booking(4L, nine.plusHours(3), 60)));
+
+        index.warm();
+
+        // 1, 2 and 3 chain into one slot from 9:00 to 11:00; 4 stays on its own
+        assertFalse(index.isFree(7L, nine.plusMinutes(115), Duration.ofMinutes(10)));
+        assertTrue(index.isFree(7L, nine.plusHours(2), HOUR));
+        assertFalse(index.isFree(7L, nine.plusHours(3), HOUR));
+        assertEquals(nine.plusHours(2), index.nextFreeSlot(7L, nine, HOUR));
+        assertThrows(BookingConflictException.class, () -> index.reserve(booking(5L, nine.plusMinutes(10), 20), 7L));
+
+        index.release(1L);
+        index.release(3L);
+        assertFalse(index.isFree(7L, nine.plusMinutes(115), Duration.ofMinutes(10)));
+
+        index.release(2L);
+        assertTrue(index.isFree(7L, nine, Duration.ofHours(2)));
+        assertFalse(index.isFree(7L, nine.plusHours(3), HOUR));
+    }
+
+    private static Booking booking(Long id, LocalDateTime start, int minutes) {
+        Booking booking = TestFixtures.booking(7L);
+        booking.setId(id);
+        booking.setPreferredDateTime(start);
+        booking.setEstimatedDurationMinutes(minutes);
+        booking.setStatus(BookingStatus.ACCEPTED);
+        return booking;
+    }
+}
@@ -0,0 +1,102 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.model.Mechanic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.mechanicOnDemand.TestFixtures.mechanic;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MechanicSkillIndexTest {
+    private static final String[] SKILLS = { "brakes", "engine", "clutch", "battery", "tyres", "ac", "suspension", "paint" };
+
+    private MechanicSkillIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MechanicSkillIndex();
+    }
+
+    @Test
+    void tokenizeNormalizesAndDropsStopWords() {
+        assertEquals(Set.of("brake", "repair", "ac"), MechanicSkillIndex.tokenize("Brake Repair, AC and the brake"));
+        assertEquals(Set.of(), MechanicSkillIndex.tokenize(null));
+        assertEquals(Set.of(), MechanicSkillIndex.tokenize("a, of, -"));
+    }
+
+    @Test
+    void phraseNeedsEveryTokenAndPhrasesCombineWithAndOrOr() {
+        index.index(mechanic(1L, "brake repair, engine"));
+        index.index(mechanic(2L, "brake pads"));
+        index.index(mechanic(3L, "engine tuning"));
+
+        assertArrayEquals(new long[] { 1 }, index.search(List.of("brake repair"), true));
+        assertArrayEquals(new long[] { 1, 2 }, index.search(List.of("brake"), true));
+        assertArrayEquals(new long[] { 1 }, index.search(List.of("brake", "engine"), true));
+        assertArrayEquals(new long[] { 1, 2, 3 }, index.search(List.of("brake", "engine"), false));
+        assertArrayEquals(new long[0], index.search(List.of("welding"), false));
+        assertArrayEquals(new long[0], index.search(List.of("and"), true));
+    }
+
+    @Test
+    void searchMatchesBruteForce() {
+        Random random = new Random(7);
+        Map<Long, Set<String>> skillsById = new HashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            List<String> skills = new ArrayList<>();
+            for (String skill : SKILLS) {
+                if (random.nextInt(3) == 0) {
+                    skills.add(skill);
+                }
+            }
+            skillsById.put(id, Set.copyOf(skills));
+            index.index(mechanic(id, String.join(", ", skills)));
+        }
+
+        for (int query = 0; query < 100; query++) {
+            List<String> wanted = List.of(SKILLS[random.nextInt(SKILLS.length)], SKILLS[random.nextInt(SKILLS.length)]);
+            boolean matchAll = random.nextBoolean();
+            long[] expected = skillsById.entrySet().stream()
+                    .filter(entry -> matchAll ? entry.getValue().containsAll(wanted)
+                            : wanted.stream().anyMatch(entry.getValue()::contains))
+                    .mapToLong(Map.Entry::getKey)
+                    .sorted()
+                    .toArray();
+            assertArrayEquals(expected, index.search(wanted, matchAll));
+        }
+    }
+
+    @Test
+    void reindexingReplacesTokensAndUnsearchableMechanicsDropOut() {
+        Mechanic mechanic = mechanic(1L, "brakes");
+        index.index(mechanic);
+
+        mechanic.setSkills("engine");
+        index.index(mechanic);
+        assertArrayEquals(new long[0], index.search(List.of("brakes"), true));
+        assertArrayEquals(new long[] { 1 }, index.search(List.of("engine"), true));
+
+        mechanic.setIsAvailable(false);
+        index.index(mechanic);
+        assertArrayEquals(new long[0], index.search(List.of("engine"), true));
+    }
+
+    @Test
+    void removeDropsEveryPosting() {
+        index.index(mechanic(1L, "brakes, engine"));
+        index.index(mechanic(2L, "brakes"));
+
+        index.remove(1L);
+
+        assertArrayEquals(new long[] { 2 }, index.search(List.of("brakes"), true));
+        assertArrayEquals(new long[0], index.search(List.of("engine"), true));
+    }
+}
@@ -0,0 +1,89 @@
+package com.mechanicOnDemand.service;
+
+import com.mechanicOnDemand.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadCountCacheTest {
+    private NotificationRepository notificationRepository;
+    private UnreadCountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        cache = new UnreadCountCache();
+        ReflectionTestUtils.setField(cache, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void deltasOutsideATransactionApplyAtOnce() {
+        when(notificationRepository.countUnreadNotificationsByUser(1L)).thenReturn(3L);
+        cache.get(1L);
+
+        cache.increment(1L, 2);
+        cache.decrement(1L, 1);
+
+        assertEquals(4, cache.get(1L));
+        cache.decrement(1L, 10);
+        assertEquals(0, cache.get(1L));
+    }
+
+    @Test
+    void decrementWaitsForCommit() {
+        when(notificationRepository.countUnreadNotificationsByUser(1L)).thenReturn(3L);
+        cache.get(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.decrement(1L, 1);
+        assertEquals(3, cache.get(1L));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(2, cache.get(1L));
+    }
+
+    @Test
+    void rolledBackDecrementIsDropped() {
+        when(notificationRepository.countUnreadNotificationsByUser(1L)).thenReturn(3L);
+        cache.get(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.decrement(1L, 1);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(3, cache.get(1L));
+    }
+
+    @Test
+    void loadOverlappingADeltaIsNotCached() {
+        when(notificationRepository.countUnreadNotificationsByUser(1L)).thenAnswer(invocation -> {
+            cache.decrement(1L, 1);
+            return 5L;
+        }).thenReturn(4L);
+
+        assertEquals(5, cache.get(1L));
+        assertEquals(4, cache.get(1L));
+        assertEquals(4, cache.get(1L));
+        verify(notificationRepository, times(2)).countUnreadNotificationsByUser(1L);
+    }
+}
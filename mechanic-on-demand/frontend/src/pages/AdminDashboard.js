@@ -1,7 +1,8 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { Container, Row, Col, Nav, Card, Button, Table, Badge, Spinner, Modal } from 'react-bootstrap';
 import { toast } from 'react-toastify';
 import { adminAPI } from '../services/api';
+import webSocketService from '../services/websocket';
 
 const AdminDashboard = () => {
   const [activeTab, setActiveTab] = useState('dashboard');
@@ -9,9 +10,40 @@ const AdminDashboard = () => {
   const [users, setUsers] = useState([]);
   const [mechanics, setMechanics] = useState([]);
   const [bookings, setBookings] = useState([]);
+  // Next page to request per list, or null once the last page has been loaded
+  const [nextPage, setNextPage] = useState({ users: null, mechanics: null, bookings: null });
   const [loading, setLoading] = useState(false);
   const [showConfirmModal, setShowConfirmModal] = useState(false);
   const [confirmAction, setConfirmAction] = useState(null);
+  // Set once a live snapshot arrives; from then on the REST stats would only be older
+  const hasSnapshot = useRef(false);
+
+  // Live counters while the stats are on screen: subscribing gets a fresh snapshot, deltas are added on top of it
+  useEffect(() => {
+    if (activeTab !== 'dashboard') return undefined;
+    hasSnapshot.current = false;
+    const handleStats = (event) => {
+      const frame = event.detail;
+      if (frame.type === 'snapshot') {
+        hasSnapshot.current = true;
+        setStats(frame.stats);
+      } else if (frame.type === 'delta' && hasSnapshot.current) {
+        setStats((current) => {
+          const next = { ...current };
+          Object.entries(frame.changes).forEach(([key, delta]) => {
+            next[key] = (next[key] || 0) + delta;
+          });
+          return next;
+        });
+      }
+    };
+    window.addEventListener('websocket-admin-stats', handleStats);
+    const stopWatching = webSocketService.watchAdminStats();
+    return () => {
+      stopWatching();
+      window.removeEventListener('websocket-admin-stats', handleStats);
+    };
+  }, [activeTab]);
 
   useEffect(() => {
     if (activeTab === 'dashboard') {
@@ -29,7 +61,9 @@ const AdminDashboard = () => {
     setLoading(true);
     try {
       const response = await adminAPI.getDashboardStats();
-      setStats(response.data);
+      if (!hasSnapshot.current) {
+        setStats(response.data);
+      }
     } catch (error) {
       toast.error('Failed to fetch dashboard stats');
     } finally {
@@ -37,11 +71,16 @@ const AdminDashboard = () => {
     }
   };
 
-  const fetchUsers = async () => {
-    setLoading(true);
+  const loadPage = (list, page, slice, setItems) => {
+    setItems((items) => (page === 0 ? slice.content : [...items, ...slice.content]));
+    setNextPage((pages) => ({ ...pages, [list]: slice.last ? null : page + 1 }));
+  };
+
+  const fetchUsers = async (page = 0) => {
+    setLoading(page === 0);
     try {
-      const response = await adminAPI.getAllUsers();
-      setUsers(response.data);
+      const response = await adminAPI.getAllUsers({ page });
+      loadPage('users', page, response.data, setUsers);
     } catch (error) {
       toast.error('Failed to fetch users');
     } finally {
@@ -49,11 +88,11 @@ const AdminDashboard = () => {
     }
   };
 
-  const fetchMechanics = async () => {
-    setLoading(true);
+  const fetchMechanics = async (page = 0) => {
+    setLoading(page === 0);
     try {
-      const response = await adminAPI.getAllMechanics();
-      setMechanics(response.data);
+      const response = await adminAPI.getAllMechanics({ page });
+      loadPage('mechanics', page, response.data, setMechanics);
     } catch (error) {
       toast.error('Failed to fetch mechanics');
     } finally {
@@ -61,11 +100,11 @@ const AdminDashboard = () => {
     }
   };
 
-  const fetchBookings = async () => {
-    setLoading(true);
+  const fetchBookings = async (page = 0) => {
+    setLoading(page === 0);
     try {
-      const response = await adminAPI.getAllBookings();
-      setBookings(response.data);
+      const response = await adminAPI.getAllBookings({ page });
+      loadPage('bookings', page, response.data, setBookings);
     } catch (error) {
       toast.error('Failed to fetch bookings');
     } finally {
@@ -329,6 +368,13 @@ const AdminDashboard = () => {
                         ))}
                       </tbody>
                     </Table>
+                    {nextPage.users !== null && (
+                      <div className="text-center">
+                        <Button variant="outline-primary" size="sm" onClick={() => fetchUsers(nextPage.users)}>
+                          Load more
+                        </Button>
+                      </div>
+                    )}
                   </Card.Body>
                 </Card>
               )}
@@ -363,7 +409,7 @@ const AdminDashboard = () => {
                         {mechanics.map((mechanic) => (
                           <tr key={mechanic.id}>
                             <td>{mechanic.id}</td>
-                            <td>{mechanic.user.fullName}</td>
+                            <td>{mechanic.fullName}</td>
                             <td>{mechanic.skills}</td>
                             <td>{mechanic.yearsOfExperience} years</td>
                             <td>₹{mechanic.hourlyRate}/hr</td>
@@ -394,6 +440,13 @@ const AdminDashboard = () => {
                         ))}
                       </tbody>
                     </Table>
+                    {nextPage.mechanics !== null && (
+                      <div className="text-center">
+                        <Button variant="outline-primary" size="sm" onClick={() => fetchMechanics(nextPage.mechanics)}>
+                          Load more
+                        </Button>
+                      </div>
+                    )}
                   </Card.Body>
                 </Card>
               )}
@@ -426,8 +479,8 @@ const AdminDashboard = () => {
                         {bookings.map((booking) => (
                           <tr key={booking.id}>
                             <td>{booking.id}</td>
-                            <td>{booking.customer.fullName}</td>
-                            <td>{booking.mechanic.user.fullName}</td>
+                            <td>{booking.customerName}</td>
+                            <td>{booking.mechanicName || 'Unassigned'}</td>
                             <td>{booking.problemDescription.substring(0, 50)}...</td>
                             <td>{getStatusBadge(booking.status)}</td>
                             <td>{new Date(booking.createdAt).toLocaleDateString()}</td>
@@ -435,6 +488,13 @@ const AdminDashboard = () => {
                         ))}
                       </tbody>
                     </Table>
+                    {nextPage.bookings !== null && (
+                      <div className="text-center">
+                        <Button variant="outline-primary" size="sm" onClick={() => fetchBookings(nextPage.bookings)}>
+                          Load more
+                        </Button>
+                      </div>
+                    )}
                   </Card.Body>
                 </Card>
               )}
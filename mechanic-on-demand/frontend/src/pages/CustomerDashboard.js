@@ -1,10 +1,12 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { Container, Row, Col, Nav, Tab, Card, Button, Form, Badge, Modal, Spinner } from 'react-bootstrap';
 import { toast } from 'react-toastify';
 import { customerAPI } from '../services/api';
 
 const CustomerDashboard = () => {
   const [activeTab, setActiveTab] = useState('search');
+  // Kept across resubmits of the same booking so a retried request cannot create it twice
+  const bookingKey = useRef(null);
   const [mechanics, setMechanics] = useState([]);
   const [bookings, setBookings] = useState([]);
   const [loading, setLoading] = useState(false);
@@ -71,6 +73,7 @@ const CustomerDashboard = () => {
 
   const handleBookMechanic = (mechanic) => {
     setSelectedMechanic(mechanic);
+    bookingKey.current = `${Date.now()}-${Math.random().toString(36).slice(2)}`;
     setShowBookingModal(true);
   };
 
@@ -83,7 +86,7 @@ const CustomerDashboard = () => {
         preferredDateTime: bookingForm.preferredDateTime || null
       };
       
-      await customerAPI.createBooking(bookingData);
+      await customerAPI.createBooking(bookingData, bookingKey.current);
       toast.success('Booking created successfully!');
       setShowBookingModal(false);
       setBookingForm({
@@ -296,7 +299,7 @@ const CustomerDashboard = () => {
                               {getStatusBadge(booking.status)}
                             </div>
                             
-                            <p><strong>Mechanic:</strong> {booking.mechanic.user.fullName}</p>
+                            <p><strong>Mechanic:</strong> {booking.mechanic ? booking.mechanic.user.fullName : 'Finding a mechanic...'}</p>
                             <p><strong>Problem:</strong> {booking.problemDescription}</p>
                             <p><strong>Vehicle:</strong> {booking.vehicleType} {booking.vehicleModel}</p>
                             <p><strong>Location:</strong> {booking.serviceLocation}</p>
@@ -52,10 +52,13 @@ export const customerAPI = {
   getMechanicsByPincode: (pincode) => api.get(`/customer/mechanics/pincode/${pincode}`),
   searchMechanics: (skill) => api.get(`/customer/mechanics/search?skill=${skill}`),
   getMechanicById: (id) => api.get(`/customer/mechanics/${id}`),
-  createBooking: (bookingData) => api.post('/customer/bookings', bookingData),
+  createBooking: (bookingData, idempotencyKey) => api.post('/customer/bookings', bookingData, {
+    headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : {},
+  }),
   getMyBookings: () => api.get('/customer/bookings'),
   getBookingById: (id) => api.get(`/customer/bookings/${id}`),
   cancelBooking: (id) => api.put(`/customer/bookings/${id}/cancel`),
+  reviewBooking: (id, review) => api.post(`/customer/bookings/${id}/review`, review),
 };
 
 // Mechanic API
@@ -73,15 +76,15 @@ export const mechanicAPI = {
 
 // Admin API
 export const adminAPI = {
-  getAllUsers: () => api.get('/admin/users'),
-  getAllCustomers: () => api.get('/admin/users/customers'),
-  getAllMechanicUsers: () => api.get('/admin/users/mechanics'),
-  getAllMechanics: () => api.get('/admin/mechanics'),
-  getUnverifiedMechanics: () => api.get('/admin/mechanics/unverified'),
+  getAllUsers: (params) => api.get('/admin/users', { params }),
+  getAllCustomers: (params) => api.get('/admin/users/customers', { params }),
+  getAllMechanicUsers: (params) => api.get('/admin/users/mechanics', { params }),
+  getAllMechanics: (params) => api.get('/admin/mechanics', { params }),
+  getUnverifiedMechanics: (params) => api.get('/admin/mechanics/unverified', { params }),
   verifyMechanic: (id) => api.put(`/admin/mechanics/${id}/verify`),
   deleteUser: (id) => api.delete(`/admin/users/${id}`),
-  getAllBookings: () => api.get('/admin/bookings'),
-  getBookingsByStatus: (status) => api.get(`/admin/bookings/status/${status}`),
+  getAllBookings: (params) => api.get('/admin/bookings', { params }),
+  getBookingsByStatus: (status, params) => api.get(`/admin/bookings/status/${status}`, { params }),
   getDashboardStats: () => api.get('/admin/dashboard/stats'),
   activateUser: (id) => api.put(`/admin/users/${id}/activate`),
   deactivateUser: (id) => api.put(`/admin/users/${id}/deactivate`),
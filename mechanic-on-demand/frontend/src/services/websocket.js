@@ -1,12 +1,13 @@
 import SockJS from 'sockjs-client';
 import { Stomp } from '@stomp/stompjs';
-import { getUser } from '../utils/auth';
+import { getToken, getUser } from '../utils/auth';
 
 class WebSocketService {
   constructor() {
     this.stompClient = null;
     this.connected = false;
     this.subscriptions = new Map();
+    this.adminStatsWanted = false;
   }
 
   connect() {
@@ -24,12 +25,15 @@ class WebSocketService {
       this.stompClient.debug = () => {};
 
       this.stompClient.connect(
-        {},
+        { Authorization: `Bearer ${getToken()}` },
         (frame) => {
           console.log('Connected to WebSocket:', frame);
           this.connected = true;
           this.subscribeToUserNotifications();
           this.subscribeToBookingUpdates();
+          if (this.adminStatsWanted) {
+            this.subscribeToAdminStats();
+          }
           resolve(frame);
         },
         (error) => {
@@ -100,6 +104,40 @@ class WebSocketService {
     this.subscriptions.set('system', subscription);
   }
 
+  // Subscribes now, or as soon as the socket connects, until the returned function is called.
+  // The server answers every new subscription with a snapshot, so each caller starts from a full set.
+  watchAdminStats() {
+    this.adminStatsWanted = true;
+    this.subscribeToAdminStats();
+    return () => {
+      this.adminStatsWanted = false;
+      const subscription = this.subscriptions.get('admin-stats');
+      if (subscription) {
+        if (this.connected) {
+          subscription.unsubscribe();
+        }
+        this.subscriptions.delete('admin-stats');
+      }
+    };
+  }
+
+  // Snapshot on subscribe, then coalesced counter deltas
+  subscribeToAdminStats() {
+    if (!this.stompClient || !this.connected || this.subscriptions.has('admin-stats')) return;
+
+    const subscription = this.stompClient.subscribe(
+      '/topic/admin/stats',
+      (message) => {
+        const event = new CustomEvent('websocket-admin-stats', {
+          detail: JSON.parse(message.body)
+        });
+        window.dispatchEvent(event);
+      }
+    );
+
+    this.subscriptions.set('admin-stats', subscription);
+  }
+
   handleNotification(notification) {
     // Dispatch custom event for notification
     const event = new CustomEvent('websocket-notification', {